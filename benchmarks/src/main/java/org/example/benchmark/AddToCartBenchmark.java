@@ -0,0 +1,40 @@
+package org.example.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddToCartBenchmark {
+
+  @State(Scope.Thread)
+  public static class Basket {
+
+    @Param({"1", "10", "30"})
+    public int size;
+  }
+
+  @Benchmark
+  public Product addToCart(ShopState shop, ShopperState shopper) {
+    return shop.productService.addToCart(shopper.ownerId, shopper.nextProduct(shop));
+  }
+
+  @Benchmark
+  public List<Product> addAllToCart(ShopState shop, ShopperState shopper, Basket basket) {
+    return shop.productService.addAllToCart(shopper.ownerId, shopper.basket(shop, basket.size));
+  }
+}
@@ -0,0 +1,52 @@
+package org.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per thread count with the GC profiler attached, so every run
+ * reports throughput, sample-time percentiles (p99) and allocation rate.
+ *
+ * <p>Accepts the usual JMH command line plus {@code --threads=1,4,16}.
+ */
+public final class BenchmarkRunner {
+
+  private static final String THREADS_OPTION = "--threads=";
+  private static final String DEFAULT_THREADS = "1,4,16";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws Exception {
+    String threads = DEFAULT_THREADS;
+    List<String> jmhArgs = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.startsWith(THREADS_OPTION)) {
+        threads = arg.substring(THREADS_OPTION.length());
+      } else {
+        jmhArgs.add(arg);
+      }
+    }
+
+    CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(String[]::new));
+    int[] threadCounts =
+        Arrays.stream(threads.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    for (int threadCount : threadCounts) {
+      Options options =
+          new OptionsBuilder()
+              .parent(commandLine)
+              .threads(threadCount)
+              .addProfiler(GCProfiler.class)
+              .resultFormat(ResultFormatType.JSON)
+              .result("target/jmh-result-t" + threadCount + ".json")
+              .build();
+      new Runner(options).run();
+    }
+  }
+}
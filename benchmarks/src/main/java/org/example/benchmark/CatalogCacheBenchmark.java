@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repeated catalog lookups, one persistence context per lookup as in a request: served by the
+ * second-level cache, or forced to the database with {@link CacheRetrieveMode#BYPASS}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogCacheBenchmark {
+
+  private static final Map<String, Object> BYPASS_CACHE =
+      Map.of("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+  @State(Scope.Benchmark)
+  public static class Catalog {
+
+    EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void warmUp(ShopState shop) {
+      entityManagerFactory = shop.context.getBean(EntityManagerFactory.class);
+      for (int i = 0; i < ShopState.CATALOG_SIZE; i++) {
+        find(shop, i, Map.of());
+      }
+    }
+
+    Product find(ShopState shop, int index, Map<String, Object> hints) {
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+      try {
+        return entityManager.find(Product.class, shop.product(index), hints);
+      } finally {
+        entityManager.close();
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    int next;
+  }
+
+  @Benchmark
+  public Product findCached(ShopState shop, Catalog catalog, Cursor cursor) {
+    return catalog.find(shop, cursor.next++, Map.of());
+  }
+
+  @Benchmark
+  public Product findFromDatabase(ShopState shop, Catalog catalog, Cursor cursor) {
+    return catalog.find(shop, cursor.next++, BYPASS_CACHE);
+  }
+}
@@ -0,0 +1,41 @@
+package org.example.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+  @State(Scope.Thread)
+  public static class FilledCart {
+
+    @Param({"1", "10", "100"})
+    public int cartSize;
+
+    @Setup(Level.Invocation)
+    public void fill(ShopState shop, ShopperState shopper) {
+      shop.productService.addAllToCart(shopper.ownerId, shopper.basket(shop, cartSize));
+    }
+  }
+
+  @Benchmark
+  public BigDecimal checkout(ShopState shop, ShopperState shopper, FilledCart cart) {
+    return shop.orderService.checkout(shopper.ownerId);
+  }
+}
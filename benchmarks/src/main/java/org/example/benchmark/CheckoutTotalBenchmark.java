@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.CartItem;
+import org.example.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The checkout total over already loaded cart lines, without the database: {@link Money} in long
+ * minor units against the BigDecimal multiply-and-add it replaced. Run with {@code -prof gc} to
+ * compare the bytes allocated per checkout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutTotalBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Lines {
+
+    @Param({"10", "100", "1000"})
+    int lineCount;
+
+    List<CartItem> items;
+    List<BigDecimal> unitPrices;
+
+    @Setup(Level.Trial)
+    public void fill() {
+      SplittableRandom random = new SplittableRandom(42);
+      items = new ArrayList<>(lineCount);
+      unitPrices = new ArrayList<>(lineCount);
+      for (int i = 0; i < lineCount; i++) {
+        Money unitPrice = new Money(random.nextLong(1, 1_000_000));
+        CartItem item = new CartItem();
+        item.setUnitPrice(unitPrice);
+        item.setQuantity(random.nextInt(1, 10));
+        items.add(item);
+        unitPrices.add(unitPrice.toBigDecimal());
+      }
+    }
+  }
+
+  @Benchmark
+  public Money moneyTotal(Lines lines) {
+    return Money.total(lines.items, CartItem::getUnitPrice, CartItem::getQuantity);
+  }
+
+  @Benchmark
+  public BigDecimal bigDecimalTotal(Lines lines) {
+    BigDecimal total = BigDecimal.ZERO;
+    for (int i = 0; i < lines.lineCount; i++) {
+      BigDecimal quantity = BigDecimal.valueOf(lines.items.get(i).getQuantity());
+      total = total.add(lines.unitPrices.get(i).multiply(quantity));
+    }
+    return total;
+  }
+}
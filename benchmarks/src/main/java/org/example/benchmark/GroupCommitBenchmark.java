@@ -0,0 +1,54 @@
+package org.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.example.cart.AddToCartGroupCommitter;
+import org.example.cart.GroupCommitProperties;
+import org.example.contract.AsyncProductService;
+import org.example.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Async addToCart with one transaction per call against group commit, where concurrent calls
+ * share a transaction. Only pays off with several benchmark threads, e.g. {@code --threads=16}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Commit {
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    AsyncProductService asyncProductService;
+
+    @Setup(Level.Trial)
+    public void configure(ShopState shop) {
+      shop.context.getBean(GroupCommitProperties.class).setEnabled(groupCommit);
+      if (groupCommit) {
+        shop.context.getBean(AddToCartGroupCommitter.class).start();
+      }
+      asyncProductService = shop.context.getBean(AsyncProductService.class);
+    }
+  }
+
+  @Benchmark
+  public Product addToCart(ShopState shop, ShopperState shopper, Commit commit) {
+    return commit.asyncProductService.addToCart(shopper.ownerId, shopper.nextProduct(shop)).join();
+  }
+}
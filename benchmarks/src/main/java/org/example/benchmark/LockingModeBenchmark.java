@@ -0,0 +1,79 @@
+package org.example.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.ProductRepository;
+import org.example.stock.StockReservationProperties;
+import org.example.stock.StockUnitPoolService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * All threads buy the same product: compares the guarded UPDATE of the product row, {@code SELECT
+ * ... FOR UPDATE} on the row, and a pool of unit rows claimed with {@code SKIP LOCKED}. Run with
+ * several thread counts, e.g. {@code --threads=1,8,32}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockingModeBenchmark {
+
+  /** Units in the pool at the start of every iteration; a unit is a row, so not unlimited. */
+  static final int POOL_SIZE = 100_000;
+
+  @State(Scope.Benchmark)
+  public static class HotProduct {
+
+    @Param({"guarded-update", "pessimistic", "pooled"})
+    public String mode;
+
+    UUID productId;
+    StockUnitPoolService pool;
+
+    @Setup(Level.Trial)
+    public void create(ShopState shop) {
+      // Every trial boots a fresh context, so the mode is switched before its first reservation
+      if (mode.equals("pessimistic")) {
+        shop.context
+            .getBean(StockReservationProperties.class)
+            .setLocking(StockReservationProperties.Locking.PESSIMISTIC);
+      }
+
+      Product product = new Product();
+      product.setName("Hot product");
+      product.setPrice(Money.of("9.99"));
+      product.setStock(mode.equals("pooled") ? POOL_SIZE : ShopState.UNLIMITED_STOCK);
+      productId = shop.context.getBean(ProductRepository.class).save(product).getId();
+      if (mode.equals("pooled")) {
+        pool = shop.context.getBean(StockUnitPoolService.class);
+        pool.enablePooling(productId);
+      }
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() {
+      if (pool != null) {
+        pool.restock(productId, POOL_SIZE - pool.available(productId));
+      }
+    }
+  }
+
+  @Benchmark
+  public Product addHotProductToCart(ShopState shop, ShopperState shopper, HotProduct hot) {
+    return shop.productService.addToCart(shopper.ownerId, hot.productId);
+  }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.example.Main;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/** Boots the persistence and service layer once per trial against an in-memory H2 database. */
+@State(Scope.Benchmark)
+public class ShopState {
+
+  static final int CATALOG_SIZE = 500;
+  static final int UNLIMITED_STOCK = 1_000_000_000;
+
+  ConfigurableApplicationContext context;
+  ProductService productService;
+  OrderService orderService;
+  List<UUID> productIds;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        new SpringApplicationBuilder(Main.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN");
+    productService = context.getBean(ProductService.class);
+    orderService = context.getBean(OrderService.class);
+
+    List<Product> catalog = new ArrayList<>();
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      Product product = new Product();
+      product.setName("Benchmark product " + i);
+      product.setPrice(Money.of("9.99"));
+      product.setStock(UNLIMITED_STOCK);
+      catalog.add(product);
+    }
+    productIds = new ArrayList<>();
+    context
+        .getBean(ProductRepository.class)
+        .saveAll(catalog)
+        .forEach(product -> productIds.add(product.getId()));
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  UUID product(int index) {
+    return productIds.get(Math.floorMod(index, productIds.size()));
+  }
+}
@@ -0,0 +1,46 @@
+package org.example.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** One shopper per benchmark thread, so threads never share a cart. */
+@State(Scope.Thread)
+public class ShopperState {
+
+  String ownerId;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void init() {
+    ownerId = "bench-" + UUID.randomUUID();
+    cursor = ThreadLocalRandom.current().nextInt(ShopState.CATALOG_SIZE);
+  }
+
+  /** Keeps carts from growing across iterations of the add-to-cart benchmarks. */
+  @Setup(Level.Iteration)
+  public void emptyCart(ShopState shop) {
+    try {
+      shop.orderService.checkout(ownerId);
+    } catch (IllegalStateException noCartOrEmptyCart) {
+      // nothing to empty yet
+    }
+  }
+
+  UUID nextProduct(ShopState shop) {
+    return shop.product(cursor++);
+  }
+
+  Map<UUID, Integer> basket(ShopState shop, int size) {
+    Map<UUID, Integer> basket = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      basket.put(nextProduct(shop), 1);
+    }
+    return basket;
+  }
+}
@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.ProductRepository;
+import org.example.stock.StripedStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * All threads buy the same product: compares the single-row stock ({@code stripes = 0}) with
+ * striped stock. Run with several thread counts to see throughput scale with the stripe count.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StripedStockBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class HotProduct {
+
+    @Param({"0", "4", "16"})
+    public int stripes;
+
+    UUID productId;
+
+    @Setup(Level.Trial)
+    public void create(ShopState shop) {
+      Product product = new Product();
+      product.setName("Hot product");
+      product.setPrice(Money.of("9.99"));
+      product.setStock(ShopState.UNLIMITED_STOCK);
+      productId = shop.context.getBean(ProductRepository.class).save(product).getId();
+      if (stripes > 0) {
+        shop.context.getBean(StripedStockService.class).enableStriping(productId, stripes);
+      }
+    }
+  }
+
+  @Benchmark
+  public Product addHotProductToCart(ShopState shop, ShopperState shopper, HotProduct hot) {
+    return shop.productService.addToCart(shopper.ownerId, hot.productId);
+  }
+}
@@ -0,0 +1,114 @@
+package org.example.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.example.entity.Product;
+import org.example.execution.ExecutionProperties;
+import org.example.execution.ExecutionProperties.ThreadMode;
+import org.example.execution.ShopExecutors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Load test: a wave of 1k or 10k concurrent callers, each adding one product to its own cart,
+ * submitted to the shop executor on platform or virtual threads. The transaction gate in front of
+ * the connection pool is the same in both modes, and the platform pool has a thread per caller.
+ * The peak number of live platform threads is reported as the {@code platformThreads} counter.
+ *
+ * <p>Run it with {@code --threads=1}: {@link BenchmarkRunner} overrides {@code @Threads}, and with
+ * more benchmark threads each one submits its own wave at the same time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Threads(1)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Callers {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threads;
+
+    @Param({"1000", "10000"})
+    public int callers;
+
+    ExecutorService executor;
+    ThreadMXBean threadBean;
+
+    @Setup(Level.Trial)
+    public void start(BenchmarkParams benchmark) {
+      ExecutionProperties properties = new ExecutionProperties();
+      properties.setThreads(threads);
+      properties.setPlatformPoolSize(callers * benchmark.getThreads());
+      executor = ShopExecutors.create(properties);
+      threadBean = ManagementFactory.getThreadMXBean();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+      threadBean.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      executor.shutdown();
+    }
+  }
+
+  /** Peak live platform threads per iteration, read by JMH from the public field. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class PeakThreads {
+
+    public long platformThreads;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      platformThreads = 0;
+    }
+  }
+
+  @Benchmark
+  public int addToCartWave(
+      ShopState shop, Callers wave, PeakThreads peak, ThreadParams thread) throws Exception {
+    List<Future<Product>> calls = new ArrayList<>(wave.callers);
+    for (int i = 0; i < wave.callers; i++) {
+      String ownerId = "wave-caller-" + thread.getThreadIndex() + "-" + i;
+      UUID productId = shop.product(i);
+      calls.add(wave.executor.submit(() -> shop.productService.addToCart(ownerId, productId)));
+    }
+    for (Future<Product> call : calls) {
+      call.get();
+    }
+
+    // The peak is process-wide and JMH sums the counter over benchmark threads: report it once
+    if (thread.getThreadIndex() == 0) {
+      peak.platformThreads = wave.threadBean.getPeakThreadCount();
+    }
+    return calls.size();
+  }
+}
@@ -0,0 +1,74 @@
+package org.example.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.example.execution.ExecutionProperties;
+import org.example.execution.ShopExecutors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs service calls for the async facades on an executor of their own, in the configured thread
+ * mode. Queued plus running calls are capped: past the cap a call is refused at once instead of
+ * queueing without bound.
+ */
+@Component
+public class AsyncExecutor implements DisposableBean {
+
+  private final ExecutorService executor;
+  private final int maxPending;
+  private final Semaphore pending;
+  private final AsyncMetrics metrics;
+
+  public AsyncExecutor(
+      AsyncProperties properties, ExecutionProperties executionProperties, AsyncMetrics metrics) {
+    this.executor = ShopExecutors.create(executionProperties);
+    this.maxPending = properties.getMaxPending();
+    this.pending = new Semaphore(maxPending);
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return the call's result, or a future failed with {@link RejectedExecutionException} if the
+   *     executor is saturated
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> call) {
+    // 1. Refuse the call rather than queue it past the cap
+    if (!pending.tryAcquire()) {
+      metrics.recordRejected();
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException(maxPending + " async calls already pending"));
+    }
+
+    // 2. Run it, giving the slot back whatever the outcome
+    CompletableFuture<T> result;
+    try {
+      result = CompletableFuture.supplyAsync(call, executor);
+    } catch (RejectedExecutionException shutDown) {
+      pending.release();
+      metrics.recordRejected();
+      return CompletableFuture.failedFuture(shutDown);
+    }
+    metrics.recordSubmitted();
+    return result.whenComplete(
+        (value, failure) -> {
+          pending.release();
+          if (failure != null) {
+            metrics.recordFailed();
+          }
+        });
+  }
+
+  /** Calls queued or running now. */
+  public int getPending() {
+    return maxPending - pending.availablePermits();
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
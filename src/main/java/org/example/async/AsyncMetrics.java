@@ -0,0 +1,50 @@
+package org.example.async;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/** Counters for the {@link AsyncExecutor} and read coalescing. */
+@Component
+public class AsyncMetrics {
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  void recordSubmitted() {
+    submitted.increment();
+  }
+
+  void recordRejected() {
+    rejected.increment();
+  }
+
+  void recordFailed() {
+    failed.increment();
+  }
+
+  void recordCoalesced() {
+    coalesced.increment();
+  }
+
+  /** Calls accepted by the executor. */
+  public long getSubmitted() {
+    return submitted.sum();
+  }
+
+  /** Calls refused because too many were pending. */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /** Accepted calls that completed exceptionally. */
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /** Reads served by joining a read already in flight. */
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+}
@@ -0,0 +1,12 @@
+package org.example.async;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+  /** Calls queued or running on the async executor at once; further calls are rejected. */
+  private int maxPending = 1000;
+}
@@ -0,0 +1,52 @@
+package org.example.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Lets concurrent reads of the same key share one load. A key is forgotten as soon as its load
+ * completes, so a later read always sees data at least as fresh as its own start.
+ */
+public class ReadCoalescer<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final AsyncMetrics metrics;
+
+  public ReadCoalescer(AsyncMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return a copy of the shared future, so one caller cancelling its copy does not affect the
+   *     others
+   */
+  public CompletableFuture<V> read(K key, Function<K, CompletableFuture<V>> load) {
+    // 1. Join the load already in flight for this key
+    CompletableFuture<V> shared = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+    if (existing != null) {
+      metrics.recordCoalesced();
+      return existing.copy();
+    }
+
+    // 2. Otherwise start it, and forget the key before anyone sees the result
+    CompletableFuture<V> loading;
+    try {
+      loading = load.apply(key);
+    } catch (RuntimeException e) {
+      loading = CompletableFuture.failedFuture(e);
+    }
+    loading.whenComplete(
+        (value, failure) -> {
+          inFlight.remove(key, shared);
+          if (failure != null) {
+            shared.completeExceptionally(failure);
+          } else {
+            shared.complete(value);
+          }
+        });
+    return shared.copy();
+  }
+}
@@ -0,0 +1,89 @@
+package org.example.cache;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Explicit invalidation and statistics for the {@link Product} second-level cache region.
+ *
+ * <p>Hibernate keeps the region consistent for changes made through entities. Stock is written
+ * with plain JDBC instead, because a bulk JPQL or native UPDATE would make Hibernate clear the
+ * whole region; those writes evict just the changed products through {@link #invalidate}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * Evicts products whose stock changed. Evicts right away, so the current transaction reads its
+   * own change, and again once it completes, so no other transaction keeps a value it cached while
+   * the change was in flight.
+   */
+  public void invalidate(Collection<UUID> productIds) {
+    if (productIds.isEmpty()) {
+      return;
+    }
+    List<UUID> ids = List.copyOf(productIds);
+    invalidations.add(ids.size());
+    evict(ids);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              evict(ids);
+            }
+          });
+    }
+  }
+
+  /** Lookups served by the region; counted only with {@code hibernate.generate_statistics}. */
+  public long getHits() {
+    CacheRegionStatistics statistics = regionStatistics();
+    return statistics == null ? 0 : statistics.getHitCount();
+  }
+
+  /** Lookups that went to the database; counted only with {@code hibernate.generate_statistics}. */
+  public long getMisses() {
+    CacheRegionStatistics statistics = regionStatistics();
+    return statistics == null ? 0 : statistics.getMissCount();
+  }
+
+  /** Entries written to the region; counted only with {@code hibernate.generate_statistics}. */
+  public long getPuts() {
+    CacheRegionStatistics statistics = regionStatistics();
+    return statistics == null ? 0 : statistics.getPutCount();
+  }
+
+  /** Products evicted because their stock changed. */
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  private void evict(List<UUID> ids) {
+    Cache cache = entityManagerFactory.getCache();
+    ids.forEach(id -> cache.evict(Product.class, id));
+  }
+
+  private CacheRegionStatistics regionStatistics() {
+    return entityManagerFactory
+        .unwrap(SessionFactory.class)
+        .getStatistics()
+        .getCacheRegionStatistics(Product.CACHE_REGION);
+  }
+}
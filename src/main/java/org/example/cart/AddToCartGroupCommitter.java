@@ -0,0 +1,177 @@
+package org.example.cart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.example.contract.AddToCartRequest;
+import org.example.contract.AddToCartResult;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group commit for {@code addToCart}: concurrent requests are collected for a short window, or
+ * until a batch is full, and applied with {@link ProductService#addEachToCart} in one transaction.
+ * Every caller's future completes only after that shared commit, with its own result.
+ */
+@Slf4j
+@Component
+public class AddToCartGroupCommitter implements SmartLifecycle {
+
+  private record Pending(AddToCartRequest request, CompletableFuture<Product> result) {}
+
+  private final ProductService productService;
+  private final GroupCommitProperties properties;
+  private final GroupCommitMetrics metrics;
+  private final BlockingQueue<Pending> queue;
+  private final List<Thread> workers = new ArrayList<>();
+  private volatile boolean running;
+
+  public AddToCartGroupCommitter(
+      ProductService productService,
+      GroupCommitProperties properties,
+      GroupCommitMetrics metrics) {
+    this.productService = productService;
+    this.properties = properties;
+    this.metrics = metrics;
+    this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+  }
+
+  /**
+   * @return the added product once the batch committed, or a failed future: with the exception
+   *     {@code addToCart} would have thrown, or with {@link RejectedExecutionException} if the
+   *     queue is full
+   */
+  public CompletableFuture<Product> addToCart(String ownerId, UUID productId) {
+    CompletableFuture<Product> result = new CompletableFuture<>();
+    Pending pending = new Pending(new AddToCartRequest(ownerId, productId), result);
+    if (!running || !queue.offer(pending)) {
+      metrics.recordRejected();
+      result.completeExceptionally(
+          new RejectedExecutionException("Group commit queue is full or stopped"));
+    } else if (!running && queue.remove(pending)) {
+      // stop() may have drained the queue between the check and the offer; otherwise the drain or
+      // a worker took the request
+      result.completeExceptionally(new RejectedExecutionException("Group commit stopped"));
+    }
+    return result;
+  }
+
+  /** The workers only start with the context when group commit is enabled at startup. */
+  @Override
+  public boolean isAutoStartup() {
+    return properties.isEnabled();
+  }
+
+  /** Starts the workers; group commit enabled after startup has to start them explicitly. */
+  @Override
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    for (int i = 0; i < properties.getWorkers(); i++) {
+      workers.add(Thread.ofPlatform().name("cart-group-commit-" + i).daemon().start(this::work));
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    running = false;
+    workers.forEach(Thread::interrupt);
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    workers.clear();
+
+    List<Pending> abandoned = new ArrayList<>();
+    queue.drainTo(abandoned);
+    abandoned.forEach(
+        pending ->
+            pending.result().completeExceptionally(
+                new RejectedExecutionException("Group commit stopped")));
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void work() {
+    List<Pending> batch = new ArrayList<>(properties.getMaxBatchSize());
+    while (running) {
+      try {
+        collect(batch);
+      } catch (InterruptedException e) {
+        // Stopping: commit what was already collected, the rest is failed by stop()
+        Thread.currentThread().interrupt();
+      }
+      if (!batch.isEmpty()) {
+        commit(batch);
+        batch.clear();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+    }
+  }
+
+  /** Waits for a first request, then adds more until the window closes or the batch is full. */
+  private void collect(List<Pending> batch) throws InterruptedException {
+    batch.add(queue.take());
+    long deadline = System.nanoTime() + properties.getWindow().toNanos();
+    int maxBatchSize = properties.getMaxBatchSize();
+    while (batch.size() < maxBatchSize) {
+      Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  private void commit(List<Pending> batch) {
+    // 1. Apply the whole batch in one transaction; it has committed once this returns
+    List<AddToCartResult> results;
+    try {
+      results = productService.addEachToCart(batch.stream().map(Pending::request).toList());
+    } catch (RuntimeException e) {
+      // 2. The shared transaction failed as a whole: replay the requests one transaction each
+      log.warn("Group commit of {} requests failed, applying them one by one", batch.size(), e);
+      metrics.recordFallback();
+      batch.forEach(this::commitAlone);
+      return;
+    }
+    metrics.recordBatch(batch.size());
+
+    // 3. Complete every caller with its own result
+    for (int i = 0; i < batch.size(); i++) {
+      AddToCartResult result = results.get(i);
+      if (result.isAdded()) {
+        batch.get(i).result().complete(result.product());
+      } else {
+        batch.get(i).result().completeExceptionally(result.failure());
+      }
+    }
+  }
+
+  private void commitAlone(Pending pending) {
+    try {
+      AddToCartRequest request = pending.request();
+      pending.result().complete(productService.addToCart(request.ownerId(), request.productId()));
+    } catch (RuntimeException e) {
+      pending.result().completeExceptionally(e);
+    }
+  }
+}
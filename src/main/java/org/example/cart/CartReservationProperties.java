@@ -0,0 +1,16 @@
+package org.example.cart;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.cart.reservation")
+public class CartReservationProperties {
+
+  /** How long a cart line holds its stock after it was last added to. */
+  private Duration ttl = Duration.ofMinutes(30);
+
+  /** Expired cart lines released per sweep transaction. */
+  private int sweepBatchSize = 500;
+}
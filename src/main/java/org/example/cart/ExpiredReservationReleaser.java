@@ -0,0 +1,79 @@
+package org.example.cart;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.CartItem;
+import org.example.entity.Product;
+import org.example.repository.CartItemRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.stock.StockReservationEngine;
+import org.example.stock.StockUnitPoolService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Gives the stock of expired cart lines back and removes the lines. */
+@Component
+@RequiredArgsConstructor
+public class ExpiredReservationReleaser {
+
+  private final CartItemRepository cartItemRepository;
+  private final ProductRepository productRepository;
+  private final StockStripeRepository stockStripeRepository;
+  private final StockReservationEngine stockReservationEngine;
+  private final StockUnitPoolService stockUnitPoolService;
+
+  /**
+   * Releases up to {@code batchSize} lines that expired at {@code now}, in one transaction. A line
+   * renewed concurrently stays locked by its UPDATE until it commits and then no longer matches.
+   *
+   * @return number of released lines
+   */
+  @Transactional
+  public int releaseBatch(Instant now, int batchSize) {
+    // 1. Lock the lines that expired first
+    List<CartItem> expired = cartItemRepository.lockExpired(now, Limit.of(batchSize));
+    if (expired.isEmpty()) {
+      return 0;
+    }
+
+    // 2. Net the quantities per product, in id order
+    SortedMap<UUID, Integer> quantities = new TreeMap<>();
+    expired.forEach(
+        item -> quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+    Map<UUID, Product> products = new HashMap<>();
+    productRepository.findAllById(quantities.keySet()).forEach(p -> products.put(p.getId(), p));
+
+    // 3. Put the units back: stripes and unit pools one by one, product rows with one batch
+    SortedMap<UUID, Integer> singleRow = new TreeMap<>();
+    quantities.forEach(
+        (productId, quantity) -> {
+          Product product = products.get(productId);
+          if (product.isStriped()) {
+            stockStripeRepository.restock(productId, quantity);
+          } else if (product.isStockPooled()) {
+            stockUnitPoolService.restock(productId, quantity);
+          } else {
+            singleRow.put(productId, quantity);
+          }
+        });
+    if (!singleRow.isEmpty()) {
+      if (stockReservationEngine.isEnabled()) {
+        stockReservationEngine.releaseOnCommit(singleRow);
+      }
+      productRepository.applyStockDeltas(singleRow);
+    }
+
+    // 4. Remove the released lines
+    cartItemRepository.deleteAllByIds(expired.stream().map(CartItem::getId).toList());
+
+    return expired.size();
+  }
+}
@@ -0,0 +1,61 @@
+package org.example.cart;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/** Counters for the {@link AddToCartGroupCommitter}. */
+@Component
+public class GroupCommitMetrics {
+
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAccumulator maxBatchSize = new LongAccumulator(Long::max, 0);
+
+  void recordBatch(int size) {
+    batches.increment();
+    requests.add(size);
+    maxBatchSize.accumulate(size);
+  }
+
+  void recordFallback() {
+    fallbacks.increment();
+  }
+
+  void recordRejected() {
+    rejected.increment();
+  }
+
+  /** Shared transactions committed. */
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  /** Requests applied through shared transactions. */
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /** Batches whose shared transaction failed and were replayed one transaction per request. */
+  public long getFallbacks() {
+    return fallbacks.sum();
+  }
+
+  /** Requests refused because the queue was full. */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /** Largest batch so far. */
+  public long getMaxBatchSize() {
+    return maxBatchSize.get();
+  }
+
+  /** Requests per shared transaction, on average. */
+  public double getAverageBatchSize() {
+    long count = batches.sum();
+    return count == 0 ? 0 : (double) requests.sum() / count;
+  }
+}
@@ -0,0 +1,28 @@
+package org.example.cart;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.cart.group-commit")
+public class GroupCommitProperties {
+
+  /**
+   * Routes async addToCart calls through {@link AddToCartGroupCommitter}. Read on every call, but
+   * the committer's workers only start with the context when this is set at startup.
+   */
+  private boolean enabled = false;
+
+  /** How long a batch waits for more requests after its first one. */
+  private Duration window = Duration.ofMillis(2);
+
+  /** Requests per shared transaction; a full batch commits without waiting for the window. */
+  private int maxBatchSize = 64;
+
+  /** Threads gathering and committing batches, so one batch can fill while another commits. */
+  private int workers = 2;
+
+  /** Requests waiting for a batch; further requests are rejected. */
+  private int queueCapacity = 10_000;
+}
@@ -0,0 +1,50 @@
+package org.example.cart;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/** Counters for the {@link ReservationSweeper}. */
+@Component
+public class ReservationSweepMetrics {
+
+  private final LongAdder sweeps = new LongAdder();
+  private final LongAdder released = new LongAdder();
+  private final LongAccumulator maxDurationNanos = new LongAccumulator(Long::max, 0);
+  private volatile int lastReleased;
+  private volatile long lastDurationNanos;
+
+  void recordSweep(int releasedLines, long durationNanos) {
+    sweeps.increment();
+    released.add(releasedLines);
+    maxDurationNanos.accumulate(durationNanos);
+    lastReleased = releasedLines;
+    lastDurationNanos = durationNanos;
+  }
+
+  /** Completed sweeps. */
+  public long getSweeps() {
+    return sweeps.sum();
+  }
+
+  /** Expired cart lines released by all sweeps. */
+  public long getReleased() {
+    return released.sum();
+  }
+
+  /** Expired cart lines released by the latest sweep. */
+  public int getLastReleased() {
+    return lastReleased;
+  }
+
+  /** Wall-clock time of the latest sweep. */
+  public Duration getLastDuration() {
+    return Duration.ofNanos(lastDurationNanos);
+  }
+
+  /** Longest sweep so far. */
+  public Duration getMaxDuration() {
+    return Duration.ofNanos(maxDurationNanos.get());
+  }
+}
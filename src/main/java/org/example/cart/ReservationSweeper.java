@@ -0,0 +1,46 @@
+package org.example.cart;
+
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically releases the stock held by abandoned cart lines. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.cart.sweep", name = "enabled", matchIfMissing = true)
+public class ReservationSweeper {
+
+  private final CartReservationProperties properties;
+  private final ExpiredReservationReleaser expiredReservationReleaser;
+  private final ReservationSweepMetrics metrics;
+
+  /**
+   * Releases every line expired at the start of the sweep, one batch per transaction.
+   *
+   * @return number of released lines
+   */
+  @Scheduled(fixedDelayString = "${app.cart.sweep.interval:PT30S}")
+  public int sweep() {
+    long start = System.nanoTime();
+    Instant now = Instant.now();
+    int batchSize = properties.getSweepBatchSize();
+
+    int released = 0;
+    int batch;
+    do {
+      batch = expiredReservationReleaser.releaseBatch(now, batchSize);
+      released += batch;
+    } while (batch == batchSize);
+
+    long duration = System.nanoTime() - start;
+    metrics.recordSweep(released, duration);
+    if (released > 0) {
+      log.debug("Released {} expired cart lines in {} ms", released, duration / 1_000_000);
+    }
+    return released;
+  }
+}
@@ -0,0 +1,6 @@
+package org.example.contract;
+
+import java.util.UUID;
+
+/** One unit of a product to add to an owner's cart. */
+public record AddToCartRequest(String ownerId, UUID productId) {}
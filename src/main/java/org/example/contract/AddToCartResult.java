@@ -0,0 +1,22 @@
+package org.example.contract;
+
+import org.example.entity.Product;
+
+/**
+ * Outcome of one {@link AddToCartRequest} applied together with others: the added product, or the
+ * exception {@link ProductService#addToCart(String, java.util.UUID)} would have thrown.
+ */
+public record AddToCartResult(Product product, RuntimeException failure) {
+
+  public static AddToCartResult added(Product product) {
+    return new AddToCartResult(product, null);
+  }
+
+  public static AddToCartResult failed(RuntimeException failure) {
+    return new AddToCartResult(null, failure);
+  }
+
+  public boolean isAdded() {
+    return failure == null;
+  }
+}
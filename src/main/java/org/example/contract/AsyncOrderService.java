@@ -0,0 +1,18 @@
+package org.example.contract;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variants of {@link OrderService}, run and bounded like {@link AsyncProductService}.
+ */
+public interface AsyncOrderService {
+
+  CompletableFuture<BigDecimal> checkout(String ownerId);
+
+  /** Cancels the latest open order of the owner. */
+  CompletableFuture<Void> cancel(String ownerId);
+
+  CompletableFuture<Void> cancel(UUID orderId);
+}
@@ -0,0 +1,34 @@
+package org.example.contract;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import org.example.entity.Product;
+
+/**
+ * Non-blocking variants of {@link ProductService}. Every call runs in its own transaction on the
+ * async executor; once too many calls are pending, the returned future fails with {@link
+ * RejectedExecutionException}.
+ */
+public interface AsyncProductService {
+
+  /**
+   * With {@code app.cart.group-commit.enabled}, concurrent calls share one transaction and each
+   * future completes after that shared commit.
+   */
+  CompletableFuture<Product> addToCart(String ownerId, UUID productId);
+
+  /** See {@link ProductService#addAllToCart(String, Map)}. */
+  CompletableFuture<List<Product>> addAllToCart(String ownerId, Map<UUID, Integer> quantities);
+
+  /**
+   * Loads a product. Concurrent lookups of the same product share one read and get the same
+   * instance, so treat it as read-only.
+   */
+  CompletableFuture<Product> findProduct(UUID productId);
+
+  /** Committed available stock. Concurrent requests for the same product share one read. */
+  CompletableFuture<Integer> availableStock(UUID productId);
+}
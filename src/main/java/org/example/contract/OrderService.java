@@ -1,10 +1,38 @@
 package org.example.contract;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 public interface OrderService {
 
+  /** Checks out the anonymous cart. */
   BigDecimal checkout();
 
+  BigDecimal checkout(String ownerId);
+
+  /**
+   * Applies {@link #checkout(String)} at most once per key: a repeated key returns the total of the
+   * order already placed. Failed calls leave the key unused; used keys expire after {@code
+   * app.idempotency.retention}.
+   *
+   * @throws IllegalArgumentException if the key was used for another request
+   */
+  BigDecimal checkout(String ownerId, String idempotencyKey);
+
+  /** Cancels the latest open order of the anonymous owner. */
   void cancel();
+
+  /** Cancels the latest open order of the owner. */
+  void cancel(String ownerId);
+
+  /**
+   * Applies {@link #cancel(String)} at most once per key, so a retried call does not cancel the
+   * next open order as well. Failed calls leave the key unused; used keys expire after {@code
+   * app.idempotency.retention}.
+   *
+   * @throws IllegalArgumentException if the key was used for another request
+   */
+  void cancel(String ownerId, String idempotencyKey);
+
+  void cancel(UUID orderId);
 }
@@ -1,9 +1,44 @@
 package org.example.contract;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.example.entity.Product;
 
 public interface ProductService {
 
+  /** Adds the product to the anonymous cart. */
   Product addToCart(UUID productId);
+
+  Product addToCart(String ownerId, UUID productId);
+
+  /**
+   * Applies {@link #addToCart(String, UUID)} at most once per key: a repeated key returns the
+   * product without reserving it again. Failed calls leave the key unused; used keys expire
+   * after {@code app.idempotency.retention}.
+   *
+   * @throws IllegalArgumentException if the key was used for another request
+   */
+  Product addToCart(String ownerId, UUID productId, String idempotencyKey);
+
+  /**
+   * Applies independent {@link #addToCart(String, UUID)} requests in one transaction. A request
+   * for a missing or sold-out product fails on its own and leaves the others in place.
+   *
+   * @return one result per request, in request order
+   */
+  List<AddToCartResult> addEachToCart(List<AddToCartRequest> requests);
+
+  /** Adds several products to the anonymous cart. */
+  List<Product> addAllToCart(Map<UUID, Integer> quantities);
+
+  /**
+   * Reserves every requested quantity in one transaction. Either all products are added or none
+   * are; an {@link org.example.exception.InsufficientStockException} lists the ones that lack
+   * stock.
+   *
+   * @param quantities units to add per product id
+   * @return the added products, ordered by id
+   */
+  List<Product> addAllToCart(String ownerId, Map<UUID, Integer> quantities);
 }
@@ -1,30 +1,42 @@
 package org.example.entity;
 
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Index;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
-import java.util.Set;
+import jakarta.persistence.Version;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "shopping_carts")
+@Table(
+    name = "shopping_carts",
+    indexes = @Index(name = "ux_shopping_carts_owner", columnList = "owner_id", unique = true))
 public class Cart {
 
+  /** Owner of the cart used by the overloads that take no customer/session id. */
+  public static final String ANONYMOUS_OWNER_ID = "anonymous";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
 
-  @ManyToMany
-  @JoinTable(
-      name = "shopping_carts_products",
-      joinColumns = @JoinColumn(name = "cart_id"),
-      inverseJoinColumns = @JoinColumn(name = "product_id"))
-  private Set<Product> products;
+  /** Customer or session id; every owner has at most one cart. */
+  @Column(name = "owner_id", nullable = false)
+  private String ownerId;
+
+  /** One line per product; repeated adds increment the line quantity in place. */
+  @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+  private List<CartItem> items = new ArrayList<>();
+
+  @Version
+  private Long version;
 }
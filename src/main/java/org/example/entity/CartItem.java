@@ -0,0 +1,57 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.example.money.Money;
+import org.example.money.MoneyConverter;
+
+@Data
+@Entity
+@Table(
+    name = "cart_items",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "ux_cart_items_cart_product",
+            columnNames = {"cart_id", "product_id"}),
+    indexes = @Index(name = "idx_cart_items_reserved_until", columnList = "reserved_until"))
+public class CartItem {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "cart_id")
+  private Cart cart;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "product_id")
+  private Product product;
+
+  private int quantity;
+
+  /** Price of one unit at the time it was added to the cart. */
+  @Convert(converter = MoneyConverter.class)
+  private Money unitPrice;
+
+  /** When the reserved stock goes back to the product; null never expires. */
+  @Column(name = "reserved_until")
+  private Instant reservedUntil;
+}
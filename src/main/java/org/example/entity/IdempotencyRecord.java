@@ -0,0 +1,58 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+import org.example.money.Money;
+import org.example.money.MoneyConverter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * A keyed service call that committed, written in the same transaction as its changes. The owner
+ * and key make up the primary key, so two requests of an owner with one key can never both commit,
+ * while other owners may pick the same key. Purged after {@code app.idempotency.retention}.
+ */
+@Data
+@Entity
+@Table(
+    name = "idempotency_keys",
+    indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at"))
+@IdClass(IdempotencyRecordId.class)
+public class IdempotencyRecord {
+
+  @Id
+  @Column(name = "owner_id")
+  private String ownerId;
+
+  @Id
+  @Column(name = "idempotency_key")
+  private String idempotencyKey;
+
+  @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(nullable = false)
+  private IdempotentOperation operation;
+
+  /** Product added to the cart, or order placed or cancelled. */
+  @Column(name = "result_id")
+  private UUID resultId;
+
+  /** Order total returned by a checkout. */
+  @Convert(converter = MoneyConverter.class)
+  private Money total;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,17 @@
+package org.example.entity;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Primary key of an {@link IdempotencyRecord}: every owner has keys of their own. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecordId implements Serializable {
+
+  private String ownerId;
+
+  private String idempotencyKey;
+}
@@ -0,0 +1,8 @@
+package org.example.entity;
+
+/** Service calls that accept an idempotency key. */
+public enum IdempotentOperation {
+  ADD_TO_CART,
+  CANCEL,
+  CHECKOUT,
+}
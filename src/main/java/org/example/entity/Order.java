@@ -1,35 +1,62 @@
 package org.example.entity;
 
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Index;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
-import java.util.Set;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import lombok.Data;
+import org.example.money.Money;
+import org.example.money.MoneyConverter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(
+    name = "orders",
+    indexes =
+        @Index(
+            name = "idx_orders_owner_status_created",
+            columnList = "owner_id, status, created_at"))
 public class Order {
 
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
 
-  @ManyToMany
-  @JoinTable(
-      name = "orders_products",
-      joinColumns = @JoinColumn(name = "order_id"),
-      inverseJoinColumns = @JoinColumn(name = "product_id"))
-  private Set<Product> products;
+  @Column(name = "owner_id", nullable = false)
+  private String ownerId;
 
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+  private List<OrderItem> items = new ArrayList<>();
+
+  /** Plain VARCHAR rather than a dialect-specific ENUM, so db/schema.sql stays portable. */
   @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
   private OrderStatus status;
+
+  /** Sum of the lines at checkout time, so reading it never touches the lines or products. */
+  @Convert(converter = MoneyConverter.class)
+  private Money total;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Version
+  private Long version;
 }
@@ -0,0 +1,6 @@
+package org.example.entity;
+
+public enum OrderEventType {
+  CANCELLED,
+  CHECKED_OUT,
+}
@@ -0,0 +1,56 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+import org.example.money.Money;
+import org.example.money.MoneyConverter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * An order lifecycle event written in the same transaction as the order change, and deleted once
+ * {@link org.example.outbox.OutboxRelay} handed it to the sink. No foreign key to the order, so
+ * the event outlives it.
+ */
+@Data
+@Entity
+@Table(
+    name = "outbox_events",
+    indexes = @Index(name = "idx_outbox_events_created", columnList = "created_at"))
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(nullable = false)
+  private OrderEventType type;
+
+  @Column(name = "order_id", nullable = false)
+  private UUID orderId;
+
+  @Column(name = "owner_id", nullable = false)
+  private String ownerId;
+
+  /** Order total when the event happened. */
+  @Convert(converter = MoneyConverter.class)
+  private Money total;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
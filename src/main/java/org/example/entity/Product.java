@@ -1,24 +1,60 @@
 package org.example.entity;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
+import jakarta.persistence.Version;
 import java.util.UUID;
 import lombok.Data;
+import org.example.money.Money;
+import org.example.money.MoneyConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 public class Product {
 
+  /**
+   * Second-level cache region. Stock written outside of Hibernate is evicted per product by {@link
+   * org.example.cache.ProductCache}.
+   */
+  public static final String CACHE_REGION = "product";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
 
   private String name;
-  private BigDecimal price;
+
+  @Convert(converter = MoneyConverter.class)
+  private Money price;
+
   private int stock;
+
+  /**
+   * Number of {@link StockStripe} rows holding this product's stock, spreading reservations of a
+   * hot product over several row locks. 0 keeps the whole stock in {@link #stock}.
+   */
+  private int stockStripes;
+
+  /**
+   * Whether the stock is a pool of {@link StockUnit} rows, one per unit, that buyers claim with
+   * {@code SKIP LOCKED} instead of queueing on a counter. {@link #stock} stays 0 while pooled.
+   */
+  private boolean stockPooled;
+
+  @Version
+  private Long version;
+
+  public boolean isStriped() {
+    return stockStripes > 0;
+  }
 }
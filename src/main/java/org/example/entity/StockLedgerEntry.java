@@ -0,0 +1,39 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * A committed stock change that is not applied to {@code products.stock} yet. The available stock
+ * of a product is its row value plus the sum of its pending entries.
+ */
+@Data
+@Entity
+@Table(
+    name = "stock_ledger",
+    indexes = @Index(name = "idx_stock_ledger_created", columnList = "created_at"))
+public class StockLedgerEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "product_id", nullable = false)
+  private UUID productId;
+
+  /** Stock change: negative for a reservation. */
+  private int quantity;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,42 @@
+package org.example.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.UUID;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/** One sub-counter of a striped product's stock; the available stock is the sum of its stripes. */
+@Data
+@Entity
+@Table(
+    name = "product_stock_stripes",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "ux_product_stock_stripes_product_stripe",
+            columnNames = {"product_id", "stripe"}))
+public class StockStripe {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "product_id")
+  private Product product;
+
+  /** Position of the stripe, from 0 to {@link Product#getStockStripes()} - 1. */
+  private int stripe;
+
+  private int stock;
+}
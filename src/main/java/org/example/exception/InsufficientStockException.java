@@ -0,0 +1,17 @@
+package org.example.exception;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+
+/** Thrown when a bulk reservation fails; lists every product that could not be reserved. */
+@Getter
+public class InsufficientStockException extends IllegalStateException {
+
+  private final List<UUID> productIds;
+
+  public InsufficientStockException(List<UUID> productIds) {
+    super("Products out of stock: " + productIds);
+    this.productIds = List.copyOf(productIds);
+  }
+}
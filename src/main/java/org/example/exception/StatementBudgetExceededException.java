@@ -0,0 +1,17 @@
+package org.example.exception;
+
+import lombok.Getter;
+
+/** Thrown instead of running a statement that would take a transaction over its budget. */
+@Getter
+public class StatementBudgetExceededException extends IllegalStateException {
+
+  private final String operation;
+  private final int budget;
+
+  public StatementBudgetExceededException(String operation, int budget) {
+    super("Statement budget of " + budget + " exceeded by " + operation);
+    this.operation = operation;
+    this.budget = budget;
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.execution;
+
+import java.util.concurrent.ExecutorService;
+import org.example.retry.RetryConfig;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.transaction.annotation.Transactional;
+
+@Configuration(proxyBeanMethods = false)
+public class ExecutionConfig {
+
+  /** Inside the retry advisor, so backoff sleeps hold no slot, and outside the transaction. */
+  public static final int GATE_ADVISOR_ORDER = RetryConfig.RETRY_ADVISOR_ORDER + 50;
+
+  /** Runs concurrent service calls on platform or virtual threads, see {@code app.execution}. */
+  @Bean
+  public ExecutorService shopExecutor(ExecutionProperties properties) {
+    return ShopExecutors.create(properties);
+  }
+
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public Advisor transactionGateAdvisor(TransactionGate transactionGate) {
+    DefaultPointcutAdvisor advisor =
+        new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, Transactional.class, true), transactionGate);
+    advisor.setOrder(GATE_ADVISOR_ORDER);
+    return advisor;
+  }
+
+  @Bean
+  @ConditionalOnExpression(
+      "'${app.execution.threads:platform}'.equalsIgnoreCase('virtual')"
+          + " and ${app.execution.pinning.enabled:true}")
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ExecutionProperties properties) {
+    return new VirtualThreadPinningMonitor(properties.getPinning().getThreshold());
+  }
+}
@@ -0,0 +1,50 @@
+package org.example.execution;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+  /** Threads that run service calls submitted to the shop executor. */
+  private ThreadMode threads = ThreadMode.PLATFORM;
+
+  /** Size of the fixed pool in {@link ThreadMode#PLATFORM} mode. */
+  private int platformPoolSize = 200;
+
+  private final Gate gate = new Gate();
+
+  private final Pinning pinning = new Pinning();
+
+  public enum ThreadMode {
+    /** A fixed pool of platform threads; further tasks wait in the pool's queue. */
+    PLATFORM,
+    /** One virtual thread per task. */
+    VIRTUAL,
+  }
+
+  @Data
+  public static class Gate {
+
+    /**
+     * Outermost transactions allowed to run at once, normally the connection pool size. 0 turns
+     * the gate off.
+     */
+    private int maxConcurrent = 10;
+
+    /** How long a call waits for a slot before it fails. */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+  }
+
+  @Data
+  public static class Pinning {
+
+    /** Reports virtual threads pinned to their carrier, in {@link ThreadMode#VIRTUAL} mode. */
+    private boolean enabled = true;
+
+    /** Shorter pinned sections are not reported. */
+    private Duration threshold = Duration.ofMillis(20);
+  }
+}
@@ -0,0 +1,21 @@
+package org.example.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Creates the executor for concurrent service calls in the configured thread mode. */
+public final class ShopExecutors {
+
+  private ShopExecutors() {}
+
+  public static ExecutorService create(ExecutionProperties properties) {
+    return switch (properties.getThreads()) {
+      case PLATFORM ->
+          Executors.newFixedThreadPool(
+              properties.getPlatformPoolSize(),
+              Thread.ofPlatform().name("shop-platform-", 0).factory());
+      case VIRTUAL ->
+          Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shop-virtual-", 0).factory());
+    };
+  }
+}
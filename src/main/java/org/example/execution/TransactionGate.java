@@ -0,0 +1,105 @@
+package org.example.execution;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounds the number of outermost transactions running at once. Callers queue on a fair semaphore
+ * before they borrow a connection, so thousands of virtual threads park here cheaply and in
+ * order, and a caller that waits longer than the acquire timeout fails fast.
+ */
+@Component
+public class TransactionGate implements MethodInterceptor {
+
+  private final int maxConcurrent;
+  private final Duration acquireTimeout;
+  private final Semaphore permits;
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAccumulator maxActive = new LongAccumulator(Long::max, 0);
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+  public TransactionGate(ExecutionProperties properties) {
+    this.maxConcurrent = properties.getGate().getMaxConcurrent();
+    this.acquireTimeout = properties.getGate().getAcquireTimeout();
+    this.permits = new Semaphore(Math.max(maxConcurrent, 0), true);
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    // 1. Calls joining a transaction already run inside a slot
+    if (maxConcurrent <= 0 || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return invocation.proceed();
+    }
+
+    // 2. Wait for a slot, then hold it for the whole transaction
+    acquire(invocation.getMethod().getName());
+    try {
+      maxActive.accumulate(getActive());
+      return invocation.proceed();
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void acquire(String operation) {
+    long start = System.nanoTime();
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TransientDataAccessResourceException("Interrupted waiting to run " + operation, e);
+    }
+    maxWaitNanos.accumulate(System.nanoTime() - start);
+
+    if (!acquired) {
+      rejected.increment();
+      throw new TransientDataAccessResourceException(
+          "No transaction slot for " + operation + " within " + acquireTimeout);
+    }
+    admitted.increment();
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /** Transactions running now. */
+  public int getActive() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  /** Callers waiting for a slot now. */
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  /** Most transactions seen running at once. */
+  public long getMaxActive() {
+    return maxActive.get();
+  }
+
+  /** Calls that got a slot. */
+  public long getAdmitted() {
+    return admitted.sum();
+  }
+
+  /** Calls that gave up after the acquire timeout. */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /** Longest wait for a slot so far. */
+  public Duration getMaxWait() {
+    return Duration.ofNanos(maxWaitNanos.get());
+  }
+}
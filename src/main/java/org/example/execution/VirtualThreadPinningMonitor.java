@@ -0,0 +1,104 @@
+package org.example.execution;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event, raised when a virtual thread blocks
+ * while it cannot unmount from its carrier, typically inside {@code synchronized}. Each pinning
+ * site is logged with its stack once and counted every time.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final Duration threshold;
+  private final LongAdder pinned = new LongAdder();
+  private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+  private volatile RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public void start() {
+    RecordingStream recording = new RecordingStream();
+    recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(PINNED_EVENT, this::record);
+    recording.startAsync();
+    stream = recording;
+  }
+
+  @Override
+  public void stop() {
+    RecordingStream recording = stream;
+    stream = null;
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return stream != null;
+  }
+
+  void record(RecordedEvent event) {
+    pinned.increment();
+    String site = site(event.getStackTrace());
+    LongAdder count = new LongAdder();
+    LongAdder existing = sites.putIfAbsent(site, count);
+    (existing == null ? count : existing).increment();
+    if (existing == null) {
+      log.warn(
+          "Virtual thread pinned for {} ms at {}:\n{}",
+          event.getDuration().toMillis(),
+          site,
+          event.getStackTrace());
+    }
+  }
+
+  /** Pinned sections longer than the threshold, since startup. */
+  public long getPinned() {
+    return pinned.sum();
+  }
+
+  /** Pinned sections per site, most frequent first. */
+  public Map<String, Long> getPinnedSites() {
+    Map<String, Long> bySite = new LinkedHashMap<>();
+    sites.entrySet().stream()
+        .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+        .forEach(entry -> bySite.put(entry.getKey(), entry.getValue().sum()));
+    return bySite;
+  }
+
+  /** The innermost application frame, or the innermost frame if there is none. */
+  private static String site(RecordedStackTrace stackTrace) {
+    if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+      return "unknown";
+    }
+    RecordedFrame site = stackTrace.getFrames().get(0);
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith("org.example.")) {
+        site = frame;
+        break;
+      }
+    }
+    return site.getMethod().getType().getName()
+        + "."
+        + site.getMethod().getName()
+        + ":"
+        + site.getLineNumber();
+  }
+}
@@ -0,0 +1,34 @@
+package org.example.idempotency;
+
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.IdempotencyRecordRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically deletes idempotency keys older than {@code app.idempotency.retention}. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.idempotency.purge", name = "enabled", matchIfMissing = true)
+public class IdempotencyKeyPurger {
+
+  private final IdempotencyProperties properties;
+  private final IdempotencyRecordRepository repository;
+
+  /**
+   * Deletes the expired keys with one DELETE on the creation time index.
+   *
+   * @return number of deleted keys
+   */
+  @Scheduled(fixedDelayString = "${app.idempotency.purge.interval:PT1H}")
+  public int purge() {
+    int purged = repository.deleteCreatedBefore(Instant.now().minus(properties.getRetention()));
+    if (purged > 0) {
+      log.debug("Purged {} expired idempotency keys", purged);
+    }
+    return purged;
+  }
+}
@@ -0,0 +1,182 @@
+package org.example.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.example.entity.IdempotencyRecord;
+import org.example.entity.IdempotencyRecordId;
+import org.example.entity.IdempotentOperation;
+import org.example.money.Money;
+import org.example.repository.IdempotencyRecordRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies keyed service calls at most once. A call records its key in the same transaction as its
+ * changes; a repeated key finds the record and replays the outcome instead. Keys are scoped to
+ * their owner, so the key of one owner tells nothing about those of another. Committed keys are
+ * also kept in a bounded in-memory cache, which the services check before opening a transaction,
+ * so a client retrying right away is answered without a connection.
+ *
+ * <p>Failed calls record nothing, so retrying them with the same key tries again. Keys are honoured
+ * for {@code app.idempotency.retention} after their creation, in memory as in the table; {@link
+ * IdempotencyKeyPurger} deletes older records, and until it does they count as unused.
+ */
+@Component
+public class IdempotencyKeys {
+
+  /** Statements a keyed call adds to its unkeyed variant: the key lookup and the insert. */
+  public static final int STATEMENTS = 2;
+
+  private final IdempotencyRecordRepository repository;
+  private final IdempotencyProperties properties;
+  private final Cache<IdempotencyRecordId, IdempotencyRecord> committed;
+  private final LongAdder replays = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+
+  public IdempotencyKeys(IdempotencyRecordRepository repository, IdempotencyProperties properties) {
+    this.repository = repository;
+    this.properties = properties;
+    this.committed =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getCacheSize())
+            .expireAfter(new CreationExpiry())
+            .build();
+  }
+
+  /**
+   * Finds a call made with {@code key} that committed recently, in memory only. Meant to run
+   * before the transaction of the call, which then has to {@link #find} the key again.
+   *
+   * @throws IllegalArgumentException if the key is blank, or the owner used it for another
+   *     operation
+   */
+  public Optional<IdempotencyRecord> findCommitted(
+      String key, IdempotentOperation operation, String ownerId) {
+    requireKey(key);
+    IdempotencyRecord record = committed.getIfPresent(new IdempotencyRecordId(ownerId, key));
+    if (record == null) {
+      return Optional.empty();
+    }
+    cacheHits.increment();
+    return Optional.of(replay(record, operation));
+  }
+
+  /**
+   * Finds the committed call made with {@code key}.
+   *
+   * @throws IllegalArgumentException if the key is blank, or the owner used it for another
+   *     operation
+   */
+  public Optional<IdempotencyRecord> find(
+      String key, IdempotentOperation operation, String ownerId) {
+    requireKey(key);
+    IdempotencyRecordId id = new IdempotencyRecordId(ownerId, key);
+
+    // 1. Keys committed recently are answered from memory
+    IdempotencyRecord record = committed.getIfPresent(id);
+    if (record != null) {
+      cacheHits.increment();
+    } else {
+      // 2. Others from the table, remembering them for the next retry
+      record = repository.findById(id).orElse(null);
+      if (record == null) {
+        return Optional.empty();
+      }
+      if (timeToLive(record).isZero()) {
+        // 3. An expired key the purger has not reached yet is unused; it goes now, so the call
+        // can record it again
+        repository.remove(record);
+        return Optional.empty();
+      }
+      committed.put(id, record);
+    }
+    return Optional.of(replay(record, operation));
+  }
+
+  /**
+   * Records the outcome of a keyed call in the current transaction, and in memory once it commits.
+   *
+   * @throws org.springframework.dao.ConcurrencyFailureException if a concurrent call of the owner
+   *     with the same key committed first; a {@link org.example.retry.RetryOnConflict} method then retries and
+   *     replays that call
+   */
+  public void record(
+      String key, IdempotentOperation operation, String ownerId, UUID resultId, Money total) {
+    IdempotencyRecord record = new IdempotencyRecord();
+    record.setIdempotencyKey(key);
+    record.setOperation(operation);
+    record.setOwnerId(ownerId);
+    record.setResultId(resultId);
+    record.setTotal(total);
+    repository.insert(record);
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            committed.put(new IdempotencyRecordId(ownerId, key), record);
+          }
+        });
+  }
+
+  /** Calls answered with the outcome of an earlier call. */
+  public long getReplays() {
+    return replays.sum();
+  }
+
+  /** Replays found in memory, without a query. */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /** Counts the time to live from the creation of the record, however often it is cached. */
+  private final class CreationExpiry implements Expiry<IdempotencyRecordId, IdempotencyRecord> {
+
+    @Override
+    public long expireAfterCreate(
+        IdempotencyRecordId id, IdempotencyRecord record, long currentTime) {
+      return timeToLive(record).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        IdempotencyRecordId id, IdempotencyRecord record, long currentTime, long currentDuration) {
+      return timeToLive(record).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(
+        IdempotencyRecordId id, IdempotencyRecord record, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  private Duration timeToLive(IdempotencyRecord record) {
+    Instant expiry = record.getCreatedAt().plus(properties.getRetention());
+    Duration left = Duration.between(Instant.now(), expiry);
+    return left.isNegative() ? Duration.ZERO : left;
+  }
+
+  private static void requireKey(String key) {
+    if (key == null || key.isBlank()) {
+      throw new IllegalArgumentException("Idempotency key must not be blank");
+    }
+  }
+
+  /** A key belongs to one request of its owner. */
+  private IdempotencyRecord replay(IdempotencyRecord record, IdempotentOperation operation) {
+    if (record.getOperation() != operation) {
+      throw new IllegalArgumentException(
+          "Idempotency key already used for another request: " + record.getIdempotencyKey());
+    }
+    replays.increment();
+    return record;
+  }
+}
@@ -0,0 +1,19 @@
+package org.example.idempotency;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+  /** Committed keys kept in memory; older ones are looked up in the database. */
+  private int cacheSize = 10_000;
+
+  /**
+   * How long a key is honoured. Older records are purged, and a call retried with such a key is
+   * applied again.
+   */
+  private Duration retention = Duration.ofHours(24);
+}
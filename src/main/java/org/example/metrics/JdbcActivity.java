@@ -0,0 +1,149 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.example.exception.StatementBudgetExceededException;
+
+/**
+ * JDBC work done by the current thread inside a scope, usually one service transaction, as seen
+ * by {@link ObservedDataSource}: statements executed, rows read or changed, and time spent in
+ * the driver, part of it waiting for row locks. Statements outside any scope only count towards
+ * the totals.
+ */
+public final class JdbcActivity {
+
+  private static final ThreadLocal<JdbcActivity> CURRENT = new ThreadLocal<>();
+  private static final LongAdder TOTAL_STATEMENTS = new LongAdder();
+  private static final LongAdder TOTAL_ROWS = new LongAdder();
+
+  private long statements;
+  private long rows;
+  private long nanos;
+  private long lockWaitNanos;
+  private final String operation;
+  private int budget = -1;
+  private boolean failOverBudget;
+  private boolean overBudget;
+
+  private JdbcActivity(String operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * Opens a scope on this thread.
+   *
+   * @param operation what runs in the scope, such as {@code OrderServiceImpl.checkout}
+   * @return the new scope, or null if one is already open; only the opener may {@link #close()}
+   */
+  public static JdbcActivity open(String operation) {
+    if (CURRENT.get() != null) {
+      return null;
+    }
+    JdbcActivity activity = new JdbcActivity(operation);
+    CURRENT.set(activity);
+    return activity;
+  }
+
+  /** The scope open on this thread, or null. */
+  public static JdbcActivity current() {
+    return CURRENT.get();
+  }
+
+  /** Ends this scope; its counts stay readable. */
+  public void close() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Sets the most statements this scope may execute. Going over marks the scope; with {@code
+   * fail} the statement over the budget is not run and throws instead.
+   */
+  public void limit(int budget, boolean fail) {
+    this.budget = budget;
+    this.failOverBudget = fail;
+  }
+
+  static void beforeStatement() {
+    JdbcActivity activity = CURRENT.get();
+    if (activity == null || activity.budget < 0 || activity.statements < activity.budget) {
+      return;
+    }
+    activity.overBudget = true;
+    if (activity.failOverBudget) {
+      throw new StatementBudgetExceededException(activity.operation, activity.budget);
+    }
+  }
+
+  static void recordStatement(long rowsChanged, long durationNanos) {
+    TOTAL_STATEMENTS.increment();
+    TOTAL_ROWS.add(rowsChanged);
+    JdbcActivity activity = CURRENT.get();
+    if (activity != null) {
+      activity.statements++;
+      activity.rows += rowsChanged;
+      activity.nanos += durationNanos;
+    }
+  }
+
+  /** Adds time spent waiting for row locks, as measured around the statements that take them. */
+  public static void recordLockWait(long waitNanos) {
+    JdbcActivity activity = CURRENT.get();
+    if (activity != null) {
+      activity.lockWaitNanos += waitNanos;
+    }
+  }
+
+  static void recordRowRead() {
+    TOTAL_ROWS.increment();
+    JdbcActivity activity = CURRENT.get();
+    if (activity != null) {
+      activity.rows++;
+    }
+  }
+
+  /** Statements executed in this scope; a JDBC batch counts once. */
+  public long getStatements() {
+    return statements;
+  }
+
+  /** Rows read from result sets plus rows reported changed by updates. */
+  public long getRows() {
+    return rows;
+  }
+
+  /** Time spent executing statements in this scope. */
+  public long getNanos() {
+    return nanos;
+  }
+
+  /** What runs in this scope. */
+  public String getOperation() {
+    return operation;
+  }
+
+  /** Time spent in statements that wait for row locks; part of {@link #getNanos()}. */
+  public long getLockWaitNanos() {
+    return lockWaitNanos;
+  }
+
+  /** The budget set with {@link #limit}, or -1. */
+  public int getBudget() {
+    return budget;
+  }
+
+  /** Whether a statement went, or tried to go, over the budget. */
+  public boolean isOverBudget() {
+    return overBudget;
+  }
+
+  /** Statements executed through any {@link ObservedDataSource} since startup. */
+  public static long getTotalStatements() {
+    return TOTAL_STATEMENTS.sum();
+  }
+
+  /** Rows read or changed through any {@link ObservedDataSource} since startup. */
+  public static long getTotalRows() {
+    return TOTAL_ROWS.sum();
+  }
+}
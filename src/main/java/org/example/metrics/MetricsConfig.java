@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.execution.ExecutionConfig;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service metrics go to whatever {@link MeterRegistry} Spring Boot configures: an in-memory one by
+ * default, or the backend of any {@code micrometer-registry-*} dependency on the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class MetricsConfig {
+
+  /** Inside the transaction gate, so queueing for a slot is not counted as transaction time. */
+  public static final int METRICS_ADVISOR_ORDER = ExecutionConfig.GATE_ADVISOR_ORDER + 25;
+
+  static final String SERVICE_PACKAGE = "org.example.service";
+
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public Advisor serviceMetricsAdvisor(
+      ObjectProvider<MeterRegistry> registry, StatementBudgetProperties budgetProperties) {
+    ComposablePointcut pointcut =
+        new ComposablePointcut(
+                (ClassFilter) clazz -> clazz.getPackageName().equals(SERVICE_PACKAGE))
+            .intersection(new AnnotationMatchingPointcut(null, Transactional.class, true));
+    DefaultPointcutAdvisor advisor =
+        new DefaultPointcutAdvisor(
+            pointcut, new ServiceMetricsInterceptor(registry, budgetProperties));
+    advisor.setOrder(METRICS_ADVISOR_ORDER);
+    return advisor;
+  }
+}
@@ -0,0 +1,118 @@
+package org.example.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+
+/**
+ * JDK proxies around a {@link DataSource} and the connections, statements and result sets it
+ * hands out, reporting every executed statement and every row read to {@link JdbcActivity}. Both
+ * Hibernate and the JDBC work in the repositories go through it, and {@code unwrap} still reaches
+ * the pool underneath.
+ */
+public final class ObservedDataSource {
+
+  private static final Set<String> STATEMENT_FACTORIES =
+      Set.of("createStatement", "prepareStatement", "prepareCall");
+
+  private ObservedDataSource() {}
+
+  public static DataSource wrap(DataSource dataSource) {
+    if (Proxy.isProxyClass(dataSource.getClass())
+        && Proxy.getInvocationHandler(dataSource) instanceof Handler) {
+      return dataSource;
+    }
+    return proxy(DataSource.class, dataSource);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T target) {
+    return (T)
+        Proxy.newProxyInstance(
+            ObservedDataSource.class.getClassLoader(), new Class<?>[] {type}, new Handler(target));
+  }
+
+  private record Handler(Object target) implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("equals") && method.getParameterCount() == 1) {
+        return proxy == args[0];
+      }
+      if (name.equals("hashCode") && method.getParameterCount() == 0) {
+        return System.identityHashCode(proxy);
+      }
+
+      // 1. Statements are checked against the budget, timed and counted; a batch is one
+      //    round trip
+      if (target instanceof Statement && name.startsWith("execute")) {
+        JdbcActivity.beforeStatement();
+        long start = System.nanoTime();
+        Object result = call(method, args);
+        JdbcActivity.recordStatement(rowsChanged(result), System.nanoTime() - start);
+        return result instanceof ResultSet resultSet ? proxy(ResultSet.class, resultSet) : result;
+      }
+
+      // 2. Everything else passes through, wrapping the JDBC objects handed back
+      Object result = call(method, args);
+      if (result instanceof Connection connection && name.equals("getConnection")) {
+        return proxy(Connection.class, connection);
+      }
+      if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(name)) {
+        return wrapStatement(statement);
+      }
+      if (result instanceof ResultSet resultSet && name.equals("getResultSet")) {
+        return proxy(ResultSet.class, resultSet);
+      }
+      if (target instanceof ResultSet && name.equals("next") && Boolean.TRUE.equals(result)) {
+        JdbcActivity.recordRowRead();
+      }
+      return result;
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    private static Statement wrapStatement(Statement statement) {
+      if (statement instanceof CallableStatement callable) {
+        return proxy(CallableStatement.class, callable);
+      }
+      if (statement instanceof PreparedStatement prepared) {
+        return proxy(PreparedStatement.class, prepared);
+      }
+      return proxy(Statement.class, statement);
+    }
+
+    private static long rowsChanged(Object result) {
+      long rows = 0;
+      if (result instanceof Integer count) {
+        rows = count;
+      } else if (result instanceof Long count) {
+        rows = count;
+      } else if (result instanceof int[] counts) {
+        for (int count : counts) {
+          rows += Math.max(count, 0);
+        }
+      } else if (result instanceof long[] counts) {
+        for (long count : counts) {
+          rows += Math.max(count, 0);
+        }
+      }
+      return Math.max(rows, 0);
+    }
+  }
+}
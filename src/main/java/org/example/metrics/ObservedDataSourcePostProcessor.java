@@ -0,0 +1,15 @@
+package org.example.metrics;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/** Puts every {@link DataSource} bean behind {@link ObservedDataSource}. */
+@Component
+public class ObservedDataSourcePostProcessor implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return bean instanceof DataSource dataSource ? ObservedDataSource.wrap(dataSource) : bean;
+  }
+}
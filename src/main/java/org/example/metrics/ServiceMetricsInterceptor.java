@@ -0,0 +1,180 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records one sample per service transaction: wall-clock time split into JDBC and Java time, the
+ * part of the JDBC time spent waiting for stock row locks, statements executed, rows touched, and
+ * the exception type when it rolls back. Retried attempts are separate transactions and are
+ * measured one by one. Transactions of {@link StatementBudget} methods are also held to their
+ * budget.
+ */
+@Slf4j
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+  private final ObjectProvider<MeterRegistry> registry;
+  private final StatementBudgetProperties budgetProperties;
+  private final Map<Method, ServiceMeters> meters = new ConcurrentHashMap<>();
+
+  public ServiceMetricsInterceptor(
+      ObjectProvider<MeterRegistry> registry, StatementBudgetProperties budgetProperties) {
+    this.registry = registry;
+    this.budgetProperties = budgetProperties;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    // 1. Joined calls are measured as part of the transaction they joined
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return invocation.proceed();
+    }
+    ServiceMeters serviceMeters = meters(invocation);
+    JdbcActivity activity = JdbcActivity.open(serviceMeters.operation());
+    if (activity == null) {
+      return invocation.proceed();
+    }
+
+    // 2. Hold the transaction to the method's statement budget, if it has one
+    StatementBudgetProperties.Mode mode = budgetProperties.getMode();
+    if (serviceMeters.budget >= 0 && mode != StatementBudgetProperties.Mode.OFF) {
+      activity.limit(serviceMeters.budget, mode == StatementBudgetProperties.Mode.FAIL);
+    }
+
+    // 3. Measure the transaction, commit or rollback included
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      return invocation.proceed();
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      activity.close();
+      serviceMeters.record(System.nanoTime() - start, activity, failure);
+    }
+  }
+
+  private ServiceMeters meters(MethodInvocation invocation) {
+    Class<?> targetClass =
+        invocation.getThis() == null
+            ? invocation.getMethod().getDeclaringClass()
+            : AopUtils.getTargetClass(invocation.getThis());
+    return meters.computeIfAbsent(
+        invocation.getMethod(),
+        method -> {
+          StatementBudget budget =
+              AnnotatedElementUtils.findMergedAnnotation(
+                  AopUtils.getMostSpecificMethod(method, targetClass), StatementBudget.class);
+          return new ServiceMeters(
+              registry.getObject(),
+              targetClass.getSimpleName(),
+              method.getName(),
+              budget == null ? -1 : budget.value());
+        });
+  }
+
+  /** Rolled back the way the transaction interceptor does by default. */
+  private static boolean rollsBack(Throwable failure) {
+    return failure instanceof RuntimeException || failure instanceof Error;
+  }
+
+  private static final class ServiceMeters {
+
+    private final MeterRegistry registry;
+    private final String className;
+    private final String methodName;
+    private final int budget;
+    private final Timer committed;
+    private final Timer rolledBack;
+    private final Timer jdbc;
+    private final Timer java;
+    private final Timer lockWait;
+    private final DistributionSummary statements;
+    private final DistributionSummary rows;
+
+    ServiceMeters(MeterRegistry registry, String className, String methodName, int budget) {
+      this.registry = registry;
+      this.className = className;
+      this.methodName = methodName;
+      this.budget = budget;
+      this.committed = timer("shop.service.transactions", "committed");
+      this.rolledBack = timer("shop.service.transactions", "rolled_back");
+      this.jdbc = timer("shop.service.transactions.jdbc", null);
+      this.java = timer("shop.service.transactions.java", null);
+      this.lockWait = timer("shop.service.transactions.lock-wait", null);
+      this.statements = summary("shop.service.transactions.statements", "statements");
+      this.rows = summary("shop.service.transactions.rows", "rows");
+    }
+
+    void record(long nanos, JdbcActivity activity, Throwable failure) {
+      boolean rollback = failure != null && rollsBack(failure);
+      (rollback ? rolledBack : committed).record(nanos, TimeUnit.NANOSECONDS);
+      jdbc.record(activity.getNanos(), TimeUnit.NANOSECONDS);
+      java.record(Math.max(nanos - activity.getNanos(), 0), TimeUnit.NANOSECONDS);
+      lockWait.record(activity.getLockWaitNanos(), TimeUnit.NANOSECONDS);
+      statements.record(activity.getStatements());
+      rows.record(activity.getRows());
+      if (rollback) {
+        Counter.builder("shop.service.rollbacks")
+            .description("Service transactions rolled back, by exception type")
+            .tags("class", className, "method", methodName)
+            .tag("exception", failure.getClass().getSimpleName())
+            .register(registry)
+            .increment();
+      }
+      if (activity.isOverBudget()) {
+        recordOverBudget(activity);
+      }
+    }
+
+    String operation() {
+      return className + "." + methodName;
+    }
+
+    private void recordOverBudget(JdbcActivity activity) {
+      Counter.builder("shop.service.statement-budget.exceeded")
+          .description("Service transactions that went over their statement budget")
+          .tags("class", className, "method", methodName)
+          .register(registry)
+          .increment();
+      log.warn(
+          "{} ran {} statements, over its budget of {}",
+          operation(),
+          activity.getStatements(),
+          activity.getBudget());
+    }
+
+    private Timer timer(String name, String outcome) {
+      Timer.Builder builder =
+          Timer.builder(name)
+              .tags("class", className, "method", methodName)
+              .publishPercentileHistogram();
+      if (outcome != null) {
+        builder.tag("outcome", outcome);
+      }
+      return builder.register(registry);
+    }
+
+    private DistributionSummary summary(String name, String baseUnit) {
+      return DistributionSummary.builder(name)
+          .tags("class", className, "method", methodName)
+          .baseUnit(baseUnit)
+          .publishPercentileHistogram()
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import lombok.RequiredArgsConstructor;
+import org.example.async.AsyncMetrics;
+import org.example.cache.ProductCache;
+import org.example.cart.GroupCommitMetrics;
+import org.example.cart.ReservationSweepMetrics;
+import org.example.execution.TransactionGate;
+import org.example.execution.VirtualThreadPinningMonitor;
+import org.example.idempotency.IdempotencyKeys;
+import org.example.outbox.OutboxMetrics;
+import org.example.retry.RetryMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/** Publishes the counters the components already keep, next to the service metrics. */
+@Component
+@RequiredArgsConstructor
+public class ShopMetricsBinder implements MeterBinder {
+
+  private final RetryMetrics retryMetrics;
+  private final TransactionGate transactionGate;
+  private final ReservationSweepMetrics sweepMetrics;
+  private final ProductCache productCache;
+  private final OutboxMetrics outboxMetrics;
+  private final AsyncMetrics asyncMetrics;
+  private final GroupCommitMetrics groupCommitMetrics;
+  private final IdempotencyKeys idempotencyKeys;
+  private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    // 1. JDBC totals, inside and outside service transactions
+    counter(
+        registry,
+        "shop.jdbc.statements",
+        JdbcActivity.class,
+        type -> JdbcActivity.getTotalStatements());
+    counter(registry, "shop.jdbc.rows", JdbcActivity.class, type -> JdbcActivity.getTotalRows());
+
+    // 2. Conflicts and the transaction gate
+    counter(registry, "shop.retry.conflicts", retryMetrics, RetryMetrics::getConflicts);
+    counter(registry, "shop.retry.retries", retryMetrics, RetryMetrics::getRetries);
+    counter(registry, "shop.retry.exhausted", retryMetrics, RetryMetrics::getExhausted);
+    gauge(registry, "shop.gate.active", transactionGate, TransactionGate::getActive);
+    gauge(registry, "shop.gate.waiting", transactionGate, TransactionGate::getWaiting);
+    counter(registry, "shop.gate.admitted", transactionGate, TransactionGate::getAdmitted);
+    counter(registry, "shop.gate.rejected", transactionGate, TransactionGate::getRejected);
+    timeGauge(registry, "shop.gate.wait.max", transactionGate, TransactionGate::getMaxWait);
+
+    // 3. Background jobs
+    counter(registry, "shop.sweep.runs", sweepMetrics, ReservationSweepMetrics::getSweeps);
+    counter(registry, "shop.sweep.released", sweepMetrics, ReservationSweepMetrics::getReleased);
+    timeGauge(
+        registry, "shop.sweep.duration.max", sweepMetrics, ReservationSweepMetrics::getMaxDuration);
+    counter(registry, "shop.outbox.runs", outboxMetrics, OutboxMetrics::getRuns);
+    counter(registry, "shop.outbox.published", outboxMetrics, OutboxMetrics::getPublished);
+    counter(registry, "shop.outbox.failures", outboxMetrics, OutboxMetrics::getFailures);
+    timeGauge(registry, "shop.outbox.duration.max", outboxMetrics, OutboxMetrics::getMaxDuration);
+
+    // 4. Product cache, async facades, group commit and idempotency keys
+    counter(registry, "shop.cache.product.hits", productCache, ProductCache::getHits);
+    counter(registry, "shop.cache.product.misses", productCache, ProductCache::getMisses);
+    counter(
+        registry, "shop.cache.product.invalidations", productCache, ProductCache::getInvalidations);
+    counter(registry, "shop.async.submitted", asyncMetrics, AsyncMetrics::getSubmitted);
+    counter(registry, "shop.async.rejected", asyncMetrics, AsyncMetrics::getRejected);
+    counter(registry, "shop.async.failed", asyncMetrics, AsyncMetrics::getFailed);
+    counter(registry, "shop.async.coalesced", asyncMetrics, AsyncMetrics::getCoalesced);
+    counter(
+        registry,
+        "shop.cart.group-commit.batches",
+        groupCommitMetrics,
+        GroupCommitMetrics::getBatches);
+    counter(
+        registry,
+        "shop.cart.group-commit.requests",
+        groupCommitMetrics,
+        GroupCommitMetrics::getRequests);
+    counter(
+        registry,
+        "shop.cart.group-commit.fallbacks",
+        groupCommitMetrics,
+        GroupCommitMetrics::getFallbacks);
+    counter(registry, "shop.idempotency.replays", idempotencyKeys, IdempotencyKeys::getReplays);
+    counter(
+        registry, "shop.idempotency.cache.hits", idempotencyKeys, IdempotencyKeys::getCacheHits);
+
+    // 5. Pinned virtual threads, when the monitor runs
+    pinningMonitor.ifAvailable(
+        monitor ->
+            counter(
+                registry,
+                "shop.virtual-threads.pinned",
+                monitor,
+                VirtualThreadPinningMonitor::getPinned));
+  }
+
+  private static <T> void counter(
+      MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+    FunctionCounter.builder(name, source, value).register(registry);
+  }
+
+  private static <T> void gauge(
+      MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+    Gauge.builder(name, source, value).register(registry);
+  }
+
+  private static <T> void timeGauge(
+      MeterRegistry registry, String name, T source, Function<T, Duration> value) {
+    TimeGauge.builder(name, source, TimeUnit.NANOSECONDS, s -> (double) value.apply(s).toNanos())
+        .register(registry);
+  }
+}
@@ -0,0 +1,24 @@
+package org.example.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most JDBC statements a {@code @Transactional} service method may execute in the transaction it
+ * owns, commit flush included; a batch counts once. What happens when a transaction goes over is
+ * set by {@code app.metrics.statement-budget.mode}.
+ *
+ * <p>Calls that join an already running transaction are counted as part of that transaction and
+ * are not checked on their own.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementBudget {
+
+  /** Maximum number of statements per transaction. */
+  int value();
+}
@@ -0,0 +1,21 @@
+package org.example.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.metrics.statement-budget")
+public class StatementBudgetProperties {
+
+  /** What to do when a transaction goes over its {@link StatementBudget}. */
+  private Mode mode = Mode.LOG;
+
+  public enum Mode {
+    /** Budgets are ignored. */
+    OFF,
+    /** Log a warning and count the transaction, which runs to completion. */
+    LOG,
+    /** Refuse the statement over the budget, so the transaction rolls back. */
+    FAIL
+  }
+}
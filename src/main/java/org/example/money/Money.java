@@ -0,0 +1,69 @@
+package org.example.money;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Amount of money with a fixed scale of {@value #SCALE}, held as a count of minor units. Sums stay
+ * in {@code long} arithmetic and fail with {@link ArithmeticException} instead of overflowing.
+ * Serializable, since Hibernate stores it as is in the second-level cache entries of its entities.
+ */
+public record Money(long minorUnits) implements Serializable {
+
+  /** Digits after the decimal point, matching the NUMERIC(38,2) price columns. */
+  public static final int SCALE = 2;
+
+  public static final Money ZERO = new Money(0);
+
+  /**
+   * @throws ArithmeticException if {@code amount} has more than {@value #SCALE} decimals or does
+   *     not fit in a {@code long} of minor units
+   */
+  public static Money of(BigDecimal amount) {
+    BigDecimal scaled = amount.setScale(SCALE, RoundingMode.UNNECESSARY);
+    return new Money(scaled.unscaledValue().longValueExact());
+  }
+
+  public static Money of(String amount) {
+    return of(new BigDecimal(amount));
+  }
+
+  /**
+   * Sums {@code unitPrice * quantity} over {@code lines}, keeping the running total in a {@code
+   * long} so only the result is allocated.
+   *
+   * @throws ArithmeticException if a line or the total overflows
+   */
+  public static <T> Money total(
+      Iterable<T> lines, Function<? super T, Money> unitPrice, ToIntFunction<? super T> quantity) {
+    long total = 0;
+    for (T line : lines) {
+      long lineTotal =
+          Math.multiplyExact(unitPrice.apply(line).minorUnits, quantity.applyAsInt(line));
+      total = Math.addExact(total, lineTotal);
+    }
+    return new Money(total);
+  }
+
+  /** @throws ArithmeticException on overflow */
+  public Money plus(Money other) {
+    return new Money(Math.addExact(minorUnits, other.minorUnits));
+  }
+
+  /** @throws ArithmeticException on overflow */
+  public Money times(int quantity) {
+    return new Money(Math.multiplyExact(minorUnits, quantity));
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
@@ -0,0 +1,73 @@
+package org.example.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** Appends published messages to a JSON Lines file, one object per line, for local runs. */
+public class FileOutboxSink implements OutboxSink {
+
+  private final Path file;
+
+  /** A lock rather than {@code synchronized}, so a virtual thread writing here is not pinned. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public FileOutboxSink(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public void publish(List<OutboxMessage> messages) {
+    StringBuilder lines = new StringBuilder();
+    for (OutboxMessage message : messages) {
+      appendJson(lines, message);
+      lines.append('\n');
+    }
+
+    lock.lock();
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      if (directory != null) {
+        Files.createDirectories(directory);
+      }
+      Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot append outbox messages to " + file, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  private static void appendJson(StringBuilder json, OutboxMessage message) {
+    json.append("{\"id\":\"").append(message.id());
+    json.append("\",\"type\":\"").append(message.type());
+    json.append("\",\"orderId\":\"").append(message.orderId());
+    json.append("\",\"ownerId\":");
+    appendString(json, message.ownerId());
+    json.append(",\"total\":").append(message.total());
+    json.append(",\"occurredAt\":\"").append(message.occurredAt()).append("\"}");
+  }
+
+  private static void appendString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+}
@@ -0,0 +1,25 @@
+package org.example.outbox;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Keeps published messages in memory, for tests and local runs. */
+public class InMemoryOutboxSink implements OutboxSink {
+
+  private final Queue<OutboxMessage> messages = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void publish(List<OutboxMessage> batch) {
+    messages.addAll(batch);
+  }
+
+  /** Messages published so far, oldest first, including redeliveries. */
+  public List<OutboxMessage> getMessages() {
+    return List.copyOf(messages);
+  }
+
+  public void clear() {
+    messages.clear();
+  }
+}
@@ -0,0 +1,32 @@
+package org.example.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.example.entity.Order;
+import org.example.entity.OrderEventType;
+import org.example.entity.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Records order lifecycle events in the outbox table, as part of the order change. */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+  private final OutboxEventRepository outboxEventRepository;
+
+  /**
+   * Saves an event for {@code order} in the caller's transaction, so the relay sees it exactly
+   * when the order change commits and never for a rolled back one.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(Order order, OrderEventType type) {
+    OutboxEvent event = new OutboxEvent();
+    event.setType(type);
+    event.setOrderId(order.getId());
+    event.setOwnerId(order.getOwnerId());
+    event.setTotal(order.getTotal());
+    outboxEventRepository.save(event);
+  }
+}
@@ -0,0 +1,25 @@
+package org.example.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class OutboxConfig {
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "app.outbox",
+      name = "sink",
+      havingValue = "memory",
+      matchIfMissing = true)
+  public InMemoryOutboxSink inMemoryOutboxSink() {
+    return new InMemoryOutboxSink();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file")
+  public FileOutboxSink fileOutboxSink(OutboxProperties properties) {
+    return new FileOutboxSink(properties.getFile());
+  }
+}
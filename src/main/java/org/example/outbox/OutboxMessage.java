@@ -0,0 +1,25 @@
+package org.example.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.example.entity.OrderEventType;
+import org.example.entity.OutboxEvent;
+import org.example.money.Money;
+
+/**
+ * What a sink receives for one {@link OutboxEvent}. The id stays the same when the event is
+ * delivered again, so consumers can deduplicate by it.
+ */
+public record OutboxMessage(
+    UUID id, OrderEventType type, UUID orderId, String ownerId, Money total, Instant occurredAt) {
+
+  static OutboxMessage of(OutboxEvent event) {
+    return new OutboxMessage(
+        event.getId(),
+        event.getType(),
+        event.getOrderId(),
+        event.getOwnerId(),
+        event.getTotal(),
+        event.getCreatedAt());
+  }
+}
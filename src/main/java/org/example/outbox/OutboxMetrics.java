@@ -0,0 +1,68 @@
+package org.example.outbox;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/** Counters for the {@link OutboxRelay}. */
+@Component
+public class OutboxMetrics {
+
+  private final LongAdder runs = new LongAdder();
+  private final LongAdder published = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final LongAccumulator maxDurationNanos = new LongAccumulator(Long::max, 0);
+  private volatile int lastPublished;
+  private volatile long lastDurationNanos;
+
+  void recordRun(int publishedEvents, long durationNanos) {
+    runs.increment();
+    published.add(publishedEvents);
+    busyNanos.add(durationNanos);
+    maxDurationNanos.accumulate(durationNanos);
+    lastPublished = publishedEvents;
+    lastDurationNanos = durationNanos;
+  }
+
+  void recordFailure() {
+    failures.increment();
+  }
+
+  /** Completed relay runs, including failed ones. */
+  public long getRuns() {
+    return runs.sum();
+  }
+
+  /** Events handed to the sink, counting redeliveries. */
+  public long getPublished() {
+    return published.sum();
+  }
+
+  /** Relay runs stopped by a failing batch. */
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /** Events published by the latest run. */
+  public int getLastPublished() {
+    return lastPublished;
+  }
+
+  /** Wall-clock time of the latest run. */
+  public Duration getLastDuration() {
+    return Duration.ofNanos(lastDurationNanos);
+  }
+
+  /** Longest run so far. */
+  public Duration getMaxDuration() {
+    return Duration.ofNanos(maxDurationNanos.get());
+  }
+
+  /** Events published per second of relay time, over all runs. */
+  public double getThroughput() {
+    long nanos = busyNanos.sum();
+    return nanos == 0 ? 0 : published.sum() * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,22 @@
+package org.example.outbox;
+
+import java.nio.file.Path;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+  /**
+   * Sink for order events: {@code memory}, {@code file}, or any other value to plug in an own
+   * {@link OutboxSink} bean.
+   */
+  private String sink = "memory";
+
+  /** JSON Lines file written by the {@code file} sink. */
+  private Path file = Path.of("outbox-events.jsonl");
+
+  /** Events claimed and published per relay transaction. */
+  private int batchSize = 100;
+}
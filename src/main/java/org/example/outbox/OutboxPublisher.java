@@ -0,0 +1,41 @@
+package org.example.outbox;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Hands claimed outbox events to the {@link OutboxSink} and removes them. */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final OutboxSink outboxSink;
+
+  /**
+   * Publishes up to {@code batchSize} of the oldest events and deletes them, in one transaction.
+   * If publishing or the commit fails, the events stay and a later batch publishes them again.
+   *
+   * @return number of published events
+   */
+  @Transactional
+  public int publishBatch(int batchSize) {
+    // 1. Claim the oldest events no other relay is working on
+    List<OutboxEvent> events = outboxEventRepository.claimOldest(Limit.of(batchSize));
+    if (events.isEmpty()) {
+      return 0;
+    }
+
+    // 2. Publish them; an exception rolls back and keeps them for the next run
+    outboxSink.publish(events.stream().map(OutboxMessage::of).toList());
+
+    // 3. Remove the published events
+    outboxEventRepository.deleteAllByIds(events.stream().map(OutboxEvent::getId).toList());
+
+    return events.size();
+  }
+}
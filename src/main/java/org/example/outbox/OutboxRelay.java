@@ -0,0 +1,50 @@
+package org.example.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically drains the outbox into the {@link OutboxSink}. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.outbox.relay", name = "enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+  private final OutboxProperties properties;
+  private final OutboxPublisher outboxPublisher;
+  private final OutboxMetrics metrics;
+
+  /**
+   * Publishes pending events one batch per transaction until the outbox is drained or a batch
+   * fails. Several relays can run at once, each claiming different events.
+   *
+   * @return number of published events
+   */
+  @Scheduled(fixedDelayString = "${app.outbox.relay.interval:PT1S}")
+  public int relay() {
+    long start = System.nanoTime();
+    int batchSize = properties.getBatchSize();
+
+    int published = 0;
+    try {
+      int batch;
+      do {
+        batch = outboxPublisher.publishBatch(batchSize);
+        published += batch;
+      } while (batch == batchSize);
+    } catch (RuntimeException e) {
+      metrics.recordFailure();
+      log.warn("Outbox relay stopped after {} events, retrying on the next run", published, e);
+    }
+
+    long duration = System.nanoTime() - start;
+    metrics.recordRun(published, duration);
+    if (published > 0) {
+      log.debug("Published {} outbox events in {} ms", published, duration / 1_000_000);
+    }
+    return published;
+  }
+}
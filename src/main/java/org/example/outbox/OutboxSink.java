@@ -0,0 +1,13 @@
+package org.example.outbox;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers order events. Delivery is at least once: a batch is
+ * published again if this method throws or the relay transaction fails after it returned.
+ */
+public interface OutboxSink {
+
+  /** Publishes the whole batch, or throws to have it retried by a later relay run. */
+  void publish(List<OutboxMessage> messages);
+}
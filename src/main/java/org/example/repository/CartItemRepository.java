@@ -0,0 +1,46 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.example.entity.CartItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface CartItemRepository
+    extends CrudRepository<CartItem, UUID>, CartItemRepositoryCustom {
+
+  /**
+   * Adds {@code quantity} units to an existing cart line with a single-row UPDATE and extends its
+   * reservation to {@code reservedUntil}.
+   *
+   * @return number of updated rows: 0 if the cart has no line for the product yet
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE CartItem i SET i.quantity = i.quantity + :quantity, i.reservedUntil = :reservedUntil"
+          + " WHERE i.cart.id = :cartId AND i.product.id = :productId")
+  int incrementQuantity(
+      @Param("cartId") UUID cartId,
+      @Param("productId") UUID productId,
+      @Param("quantity") int quantity,
+      @Param("reservedUntil") Instant reservedUntil);
+
+  /**
+   * Locks the cart lines whose reservation expired first. The scan runs along the reserved_until
+   * index instead of over the whole table.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT i FROM CartItem i WHERE i.reservedUntil <= :now ORDER BY i.reservedUntil")
+  List<CartItem> lockExpired(@Param("now") Instant now, Limit limit);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM CartItem i WHERE i.id IN :ids")
+  int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+}
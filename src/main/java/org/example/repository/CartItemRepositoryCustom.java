@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import org.example.entity.CartItem;
+
+public interface CartItemRepositoryCustom {
+
+  /**
+   * Inserts a new cart line right away instead of at commit, so a concurrent first add of the same
+   * product to the same cart is reported where it can still be retried.
+   *
+   * @throws org.springframework.dao.ConcurrencyFailureException if another transaction added a
+   *     line for the product
+   */
+  void insert(CartItem item);
+}
@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.entity.CartItem;
+
+class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void insert(CartItem item) {
+    entityManager.persist(item);
+    UniqueKeyConflicts.flush(
+        entityManager,
+        "ux_cart_items_cart_product",
+        "Cart line added by a concurrent request for product: " + item.getProduct().getId());
+  }
+}
@@ -5,9 +5,16 @@ import java.util.UUID;
 import org.example.entity.Cart;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface CartRepository extends CrudRepository<Cart, UUID> {
+public interface CartRepository extends CrudRepository<Cart, UUID>, CartRepositoryCustom {
 
-  @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.products")
-  Optional<Cart> findFirstByOrderByIdAsc();
+  Optional<Cart> findByOwnerId(String ownerId);
+
+  /**
+   * Loads the cart and its lines with one query. Line products stay uninitialized: cart lines carry
+   * their own price snapshot, so callers only need the product ids.
+   */
+  @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.ownerId = :ownerId")
+  Optional<Cart> findWithItemsByOwnerId(@Param("ownerId") String ownerId);
 }
@@ -0,0 +1,23 @@
+package org.example.repository;
+
+import org.example.entity.Cart;
+
+public interface CartRepositoryCustom {
+
+  /**
+   * Inserts a new cart right away instead of at commit, so a concurrent first add for the same
+   * owner is reported where it can still be retried.
+   *
+   * @throws org.springframework.dao.ConcurrencyFailureException if another transaction created a
+   *     cart for the owner
+   */
+  Cart insert(Cart cart);
+
+  /**
+   * Writes the pending changes of a managed cart, new lines included, right away.
+   *
+   * @throws org.springframework.dao.ConcurrencyFailureException if another transaction added a
+   *     line for one of the new products
+   */
+  void saveItems(Cart cart);
+}
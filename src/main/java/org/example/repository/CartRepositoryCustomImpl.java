@@ -0,0 +1,28 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.entity.Cart;
+
+class CartRepositoryCustomImpl implements CartRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Cart insert(Cart cart) {
+    entityManager.persist(cart);
+    UniqueKeyConflicts.flush(
+        entityManager,
+        "ux_shopping_carts_owner",
+        "Cart created by a concurrent request for owner: " + cart.getOwnerId());
+    return cart;
+  }
+
+  @Override
+  public void saveItems(Cart cart) {
+    UniqueKeyConflicts.flush(
+        entityManager,
+        "ux_cart_items_cart_product",
+        "Cart line added by a concurrent request for owner: " + cart.getOwnerId());
+  }
+}
@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import java.time.Instant;
+import org.example.entity.IdempotencyRecord;
+import org.example.entity.IdempotencyRecordId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyRecordRepository
+    extends CrudRepository<IdempotencyRecord, IdempotencyRecordId>, IdempotencyRecordRepositoryCustom {
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
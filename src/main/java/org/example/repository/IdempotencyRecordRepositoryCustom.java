@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import org.example.entity.IdempotencyRecord;
+
+public interface IdempotencyRecordRepositoryCustom {
+
+  /**
+   * Inserts the record right away instead of at commit, after the pending changes of the
+   * transaction. The record has an assigned key, so {@code save} would select it first to decide
+   * between insert and update.
+   *
+   * @throws org.springframework.dao.ConcurrencyFailureException if another transaction committed
+   *     or still holds a record with the same key
+   */
+  void insert(IdempotencyRecord record);
+
+  /**
+   * Deletes a managed record right away instead of at commit. Hibernate writes inserts before
+   * deletes, so the key could not be recorded again in the same transaction otherwise.
+   */
+  void remove(IdempotencyRecord record);
+}
@@ -0,0 +1,33 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.entity.IdempotencyRecord;
+
+class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void insert(IdempotencyRecord record) {
+    // 1. Write the changes of the request first, so their failures are not taken for a used key
+    entityManager.flush();
+
+    // 2. Then the record alone; a concurrent request with the key makes it wait for that commit
+    entityManager.persist(record);
+    // The primary key is unnamed, but the name generated for it carries the table name
+    UniqueKeyConflicts.flush(
+        entityManager,
+        "idempotency_keys",
+        "Idempotency key used by a concurrent request of owner "
+            + record.getOwnerId()
+            + ": "
+            + record.getIdempotencyKey());
+  }
+
+  @Override
+  public void remove(IdempotencyRecord record) {
+    entityManager.remove(record);
+    entityManager.flush();
+  }
+}
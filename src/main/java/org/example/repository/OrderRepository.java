@@ -1,7 +1,14 @@
 package org.example.repository;
 
+import java.util.Optional;
 import java.util.UUID;
 import org.example.entity.Order;
+import org.example.entity.OrderStatus;
 import org.springframework.data.repository.CrudRepository;
 
-public interface OrderRepository extends CrudRepository<Order, UUID> {}
+public interface OrderRepository extends CrudRepository<Order, UUID> {
+
+  /** Served by the (owner_id, status, created_at) index, whatever the order history size. */
+  Optional<Order> findFirstByOwnerIdAndStatusOrderByCreatedAtDesc(
+      String ownerId, OrderStatus status);
+}
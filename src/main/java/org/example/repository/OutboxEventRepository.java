@@ -0,0 +1,32 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.example.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, UUID> {
+
+  /**
+   * Claims the oldest events that no other relay holds. A lock timeout of -2 is Hibernate's {@code
+   * SKIP LOCKED}; on a dialect without it the claim falls back to a plain {@code FOR UPDATE} and
+   * concurrent relays wait for each other instead.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT e FROM OutboxEvent e ORDER BY e.createdAt")
+  List<OutboxEvent> claimOldest(Limit limit);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+  int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+}
@@ -1,7 +1,24 @@
 package org.example.repository;
 
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.example.entity.Product;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends CrudRepository<Product, UUID> {}
+public interface ProductRepository extends CrudRepository<Product, UUID>, ProductRepositoryCustom {
+
+  List<Product> findAllByStockStripesGreaterThan(int stockStripes);
+
+  /**
+   * Locks the product row and reads it from the database, never from the second-level cache, so
+   * the stock is current even if a racing load re-cached an older value.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT p FROM Product p WHERE p.id = :id")
+  Optional<Product> lockById(@Param("id") UUID id);
+}
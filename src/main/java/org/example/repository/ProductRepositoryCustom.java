@@ -0,0 +1,60 @@
+package org.example.repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.UUID;
+import org.example.entity.Product;
+
+/**
+ * Stock writes to the product rows. They run as plain JDBC and evict only the changed products
+ * from the second-level cache, where a bulk JPQL or native UPDATE would clear the whole region.
+ */
+public interface ProductRepositoryCustom {
+
+  /**
+   * Reserves {@code quantity} units with a single guarded UPDATE. The row lock taken by the UPDATE
+   * makes the check and the decrement atomic, so concurrent callers can never oversell. The version
+   * is bumped as well, so a stale {@link org.example.entity.Product} written back later fails its
+   * optimistic check. Striped products keep their stock in stripes and are never updated here.
+   *
+   * @return number of updated rows: 1 if reserved, 0 if the product is missing, striped or lacks
+   *     stock
+   */
+  int reserveStock(UUID id, int quantity);
+
+  /**
+   * Reserves {@code quantity} units by reading the product row with {@code SELECT ... FOR UPDATE},
+   * checking the stock in Java and writing the managed product back at flush, while the lock is
+   * still held. Waits at most {@code lockTimeout} for the row lock. The stock read, and the new one
+   * if reserved, is copied to {@code product}, managed or not.
+   *
+   * @return 1 if reserved, 0 if the product is missing, striped, pooled or lacks stock
+   */
+  int reserveStockLocked(Product product, int quantity, Duration lockTimeout);
+
+  /**
+   * Reserves stock for several products with one JDBC batch of guarded UPDATEs. Rows are updated in
+   * the iteration order of {@code quantities}, so concurrent batches lock them in the same order
+   * and cannot deadlock each other.
+   *
+   * @return ids of the products that could not be reserved; empty if all were
+   */
+  List<UUID> reserveStockBatch(SortedMap<UUID, Integer> quantities);
+
+  /**
+   * Adds signed stock changes to several products with one JDBC batch of UPDATEs, in the iteration
+   * order of {@code deltas}.
+   */
+  void applyStockDeltas(SortedMap<UUID, Integer> deltas);
+
+  /**
+   * Puts the quantities of every line of an order back into stock with one set-based UPDATE, so
+   * the cost of a cancellation does not grow with the number of lines. Pooled products get their
+   * units back with one batch of inserts, run only if the order has any. Striped products are
+   * restocked by {@link StockStripeRepository#restockOrder(UUID)}.
+   *
+   * @return number of restocked products
+   */
+  int restockOrder(UUID orderId);
+}
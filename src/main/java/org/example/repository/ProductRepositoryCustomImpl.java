@@ -0,0 +1,194 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.example.cache.ProductCache;
+import org.example.entity.Product;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+
+@RequiredArgsConstructor
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+  private static final String RESERVE_SQL =
+      "UPDATE products SET stock = stock - ?, version = version + 1"
+          + " WHERE id = ? AND stock >= ? AND stock_stripes = 0 AND NOT stock_pooled";
+
+  private static final String APPLY_DELTA_SQL =
+      "UPDATE products SET stock = stock + ?, version = version + 1 WHERE id = ?";
+
+  private static final String ORDER_PRODUCTS_SQL =
+      "SELECT i.product_id, SUM(i.quantity), p.stock_pooled"
+          + " FROM order_items i JOIN products p ON p.id = i.product_id"
+          + " WHERE i.order_id = ? GROUP BY i.product_id, p.stock_pooled";
+
+  private static final String INSERT_UNIT_SQL =
+      "INSERT INTO product_stock_units (id, product_id) VALUES (?, ?)";
+
+  private static final String RESTOCK_ORDER_SQL =
+      "UPDATE products p SET"
+          + " stock = p.stock + (SELECT SUM(i.quantity) FROM order_items i"
+          + " WHERE i.order_id = ? AND i.product_id = p.id),"
+          + " version = p.version + 1"
+          + " WHERE p.stock_stripes = 0 AND NOT p.stock_pooled AND p.id IN"
+          + " (SELECT i.product_id FROM order_items i WHERE i.order_id = ?)";
+
+  private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+  private final ProductCache productCache;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public int reserveStock(UUID id, int quantity) {
+    int updated =
+        execute(
+            connection -> {
+              try (PreparedStatement statement = connection.prepareStatement(RESERVE_SQL)) {
+                statement.setInt(1, quantity);
+                statement.setObject(2, id);
+                statement.setInt(3, quantity);
+                return statement.executeUpdate();
+              }
+            });
+    if (updated > 0) {
+      productCache.invalidate(List.of(id));
+    }
+    return updated;
+  }
+
+  @Override
+  public int reserveStockLocked(Product product, int quantity, Duration lockTimeout) {
+    // 1. Read the row under its lock, whatever version the persistence context holds
+    Product managed = entityManager.find(Product.class, product.getId());
+    if (managed == null) {
+      return 0;
+    }
+    entityManager.refresh(
+        managed,
+        LockModeType.PESSIMISTIC_WRITE,
+        Map.of(LOCK_TIMEOUT_HINT, lockTimeout.toMillis()));
+
+    // 2. Check and decrement; the update is written at flush
+    boolean reserved =
+        !managed.isStriped() && !managed.isStockPooled() && managed.getStock() >= quantity;
+    if (reserved) {
+      managed.setStock(managed.getStock() - quantity);
+    }
+    product.setStock(managed.getStock());
+    return reserved ? 1 : 0;
+  }
+
+  @Override
+  public List<UUID> reserveStockBatch(SortedMap<UUID, Integer> quantities) {
+    List<UUID> failed =
+        execute(
+            connection -> {
+              List<UUID> ids = new ArrayList<>(quantities.keySet());
+              try (PreparedStatement statement = connection.prepareStatement(RESERVE_SQL)) {
+                for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+                  statement.setInt(1, entry.getValue());
+                  statement.setObject(2, entry.getKey());
+                  statement.setInt(3, entry.getValue());
+                  statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                List<UUID> notReserved = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                  if (counts[i] == 0) {
+                    notReserved.add(ids.get(i));
+                  }
+                }
+                return notReserved;
+              }
+            });
+    productCache.invalidate(quantities.keySet());
+    return failed;
+  }
+
+  @Override
+  public void applyStockDeltas(SortedMap<UUID, Integer> deltas) {
+    execute(
+        connection -> {
+          try (PreparedStatement statement = connection.prepareStatement(APPLY_DELTA_SQL)) {
+            for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+              statement.setInt(1, entry.getValue());
+              statement.setObject(2, entry.getKey());
+              statement.addBatch();
+            }
+            return statement.executeBatch();
+          }
+        });
+    productCache.invalidate(deltas.keySet());
+  }
+
+  @Override
+  public int restockOrder(UUID orderId) {
+    List<UUID> productIds = new ArrayList<>();
+    int restocked =
+        execute(
+            connection -> {
+              Map<UUID, Integer> pooled = new LinkedHashMap<>();
+              try (PreparedStatement select = connection.prepareStatement(ORDER_PRODUCTS_SQL)) {
+                select.setObject(1, orderId);
+                try (ResultSet rows = select.executeQuery()) {
+                  while (rows.next()) {
+                    UUID productId = rows.getObject(1, UUID.class);
+                    productIds.add(productId);
+                    if (rows.getBoolean(3)) {
+                      pooled.put(productId, rows.getInt(2));
+                    }
+                  }
+                }
+              }
+              if (!pooled.isEmpty()) {
+                insertUnits(connection, pooled);
+              }
+              try (PreparedStatement update = connection.prepareStatement(RESTOCK_ORDER_SQL)) {
+                update.setObject(1, orderId);
+                update.setObject(2, orderId);
+                return update.executeUpdate() + pooled.size();
+              }
+            });
+    productCache.invalidate(productIds);
+    return restocked;
+  }
+
+  private static void insertUnits(Connection connection, Map<UUID, Integer> quantities)
+      throws SQLException {
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_UNIT_SQL)) {
+      for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+        for (int i = 0; i < entry.getValue(); i++) {
+          insert.setObject(1, UUID.randomUUID());
+          insert.setObject(2, entry.getKey());
+          insert.addBatch();
+        }
+      }
+      insert.executeBatch();
+    }
+  }
+
+  /**
+   * Same contract as a {@code @Modifying(flushAutomatically = true, clearAutomatically = true)}
+   * query: pending changes go first, stale state goes after.
+   */
+  private <T> T execute(ReturningWork<T> work) {
+    entityManager.flush();
+    T result = entityManager.unwrap(Session.class).doReturningWork(work);
+    entityManager.clear();
+    return result;
+  }
+}
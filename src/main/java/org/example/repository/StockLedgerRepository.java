@@ -0,0 +1,44 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.example.entity.StockLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface StockLedgerRepository extends CrudRepository<StockLedgerEntry, UUID> {
+
+  /** Locks the oldest pending entries, so two flushers never apply the same entry twice. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT l FROM StockLedgerEntry l ORDER BY l.createdAt")
+  List<StockLedgerEntry> lockOldest(Limit limit);
+
+  /** Locks the pending entries of one product, so no flusher applies them meanwhile. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT l FROM StockLedgerEntry l WHERE l.productId = :productId")
+  List<StockLedgerEntry> lockAllByProductId(@Param("productId") UUID productId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM StockLedgerEntry l WHERE l.id IN :ids")
+  int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * Row stock plus pending ledger entries, read with one statement so that a concurrent flush
+   * cannot make it count an entry twice or miss it.
+   *
+   * @return available stock, or empty if the product does not exist
+   */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT p.stock + COALESCE((SELECT SUM(l.quantity) FROM stock_ledger l"
+              + " WHERE l.product_id = p.id), 0) FROM products p WHERE p.id = :productId")
+  Optional<Long> findAvailableStock(@Param("productId") UUID productId);
+}
@@ -0,0 +1,62 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.UUID;
+import org.example.entity.StockStripe;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface StockStripeRepository extends CrudRepository<StockStripe, UUID> {
+
+  List<StockStripe> findAllByProductIdOrderByStripe(UUID productId);
+
+  /** Locks all stripes of a product in stripe order, so concurrent lockers cannot deadlock. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM StockStripe s WHERE s.product.id = :productId ORDER BY s.stripe")
+  List<StockStripe> lockAllByProductId(@Param("productId") UUID productId);
+
+  @Query("SELECT COALESCE(SUM(s.stock), 0) FROM StockStripe s WHERE s.product.id = :productId")
+  long sumStock(@Param("productId") UUID productId);
+
+  /**
+   * Reserves {@code quantity} units from one stripe with a single guarded UPDATE, locking only that
+   * stripe's row.
+   *
+   * @return number of updated rows: 1 if reserved, 0 if the stripe lacks stock
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE StockStripe s SET s.stock = s.stock - :quantity"
+          + " WHERE s.product.id = :productId AND s.stripe = :stripe AND s.stock >= :quantity")
+  int reserve(
+      @Param("productId") UUID productId,
+      @Param("stripe") int stripe,
+      @Param("quantity") int quantity);
+
+  /** Puts {@code quantity} units back into the first stripe; the rebalancer spreads them. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE StockStripe s SET s.stock = s.stock + :quantity"
+          + " WHERE s.product.id = :productId AND s.stripe = 0")
+  int restock(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+  /**
+   * Puts the quantities of an order's striped products back into their first stripe with one
+   * set-based UPDATE; the rebalancer spreads them over the other stripes later. Written in JPQL, so
+   * Hibernate knows that no cached entity is affected.
+   *
+   * @return number of restocked stripes
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE StockStripe s SET"
+          + " s.stock = s.stock + (SELECT SUM(i.quantity) FROM OrderItem i"
+          + " WHERE i.order.id = :orderId AND i.product.id = s.product.id)"
+          + " WHERE s.stripe = 0 AND s.product.id IN"
+          + " (SELECT i.product.id FROM OrderItem i WHERE i.order.id = :orderId)")
+  int restockOrder(@Param("orderId") UUID orderId);
+}
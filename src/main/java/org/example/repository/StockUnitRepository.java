@@ -0,0 +1,41 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.example.entity.StockUnit;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface StockUnitRepository extends CrudRepository<StockUnit, UUID> {
+
+  /**
+   * Claims up to {@code limit} units of a product that no other transaction holds, so concurrent
+   * buyers of the same product lock different rows instead of waiting for each other. A lock
+   * timeout of -2 is Hibernate's {@code SKIP LOCKED}; on a dialect without it the claim falls back
+   * to a plain {@code FOR UPDATE}.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT u FROM StockUnit u WHERE u.product.id = :productId")
+  List<StockUnit> claim(@Param("productId") UUID productId, Limit limit);
+
+  /** Committed units of a product, including those claimed by transactions still running. */
+  long countByProductId(UUID productId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM StockUnit u WHERE u.id IN :ids")
+  int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+
+  /** Removes the whole pool of a product, waiting for units claimed by running transactions. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM StockUnit u WHERE u.product.id = :productId")
+  int deleteAllByProductId(@Param("productId") UUID productId);
+}
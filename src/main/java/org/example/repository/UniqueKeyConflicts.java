@@ -0,0 +1,59 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.util.Locale;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+
+/**
+ * Flushes inserts that a concurrent transaction may race on a unique key. The loser of the race
+ * waits for the winner to commit and then violates the key; reported as a conflict, the call is
+ * retried and finds the winner's row. Any other constraint violation is a data error and is
+ * rethrown as is.
+ */
+final class UniqueKeyConflicts {
+
+  /** Unique violation in H2 and PostgreSQL. */
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  /** MySQL {@code ER_DUP_ENTRY}. */
+  private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+  private UniqueKeyConflicts() {}
+
+  /**
+   * @param uniqueKey name of the raced unique key, matched case-insensitively within the constraint
+   *     name the database reports, which may carry schema, table or column details around it
+   */
+  static void flush(EntityManager entityManager, String uniqueKey, String conflict) {
+    try {
+      entityManager.flush();
+    } catch (PersistenceException e) {
+      if (!violates(e, uniqueKey)) {
+        throw e;
+      }
+      throw new ConcurrencyFailureException(conflict, e);
+    }
+  }
+
+  /** Hibernate may report the violation as is or wrapped, depending on the flush path. */
+  private static boolean violates(Throwable failure, String uniqueKey) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation) {
+        String constraint = violation.getConstraintName();
+        return isUniqueViolation(violation.getSQLException())
+            && constraint != null
+            && constraint.toLowerCase(Locale.ROOT).contains(uniqueKey);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isUniqueViolation(SQLException sql) {
+    return sql != null
+        && (UNIQUE_VIOLATION.equals(sql.getSQLState())
+            || sql.getErrorCode() == MYSQL_DUPLICATE_ENTRY);
+  }
+}
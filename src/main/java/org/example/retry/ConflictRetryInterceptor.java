@@ -0,0 +1,78 @@
+package org.example.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Retries {@link RetryOnConflict} methods with exponential backoff and jitter. */
+@Slf4j
+@RequiredArgsConstructor
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+  private final RetryProperties properties;
+  private final RetryMetrics metrics;
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    // 1. Joined transactions are already rollback-only after a conflict
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return invocation.proceed();
+    }
+
+    int attempt = 1;
+    while (true) {
+      try {
+        // 2. Every attempt runs through the rest of the chain, including a new transaction
+        return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+      } catch (ConcurrencyFailureException e) {
+        metrics.recordConflict();
+
+        // 3. Give up once the attempt budget is spent
+        if (attempt >= properties.getMaxAttempts()) {
+          metrics.recordExhausted();
+          throw e;
+        }
+
+        // 4. Back off before the next attempt
+        long delay = backoffMillis(attempt);
+        log.debug(
+            "Conflict in {} (attempt {}), retrying in {} ms",
+            invocation.getMethod().getName(),
+            attempt,
+            delay);
+        sleep(delay, e);
+        metrics.recordRetry();
+        attempt++;
+      }
+    }
+  }
+
+  long backoffMillis(int attempt) {
+    double exponential =
+        properties.getInitialBackoff().toMillis()
+            * Math.pow(properties.getMultiplier(), attempt - 1);
+    long capped = (long) Math.min(exponential, properties.getMaxBackoff().toMillis());
+    long jitterRange = (long) (capped * properties.getJitter());
+    if (jitterRange <= 0) {
+      return capped;
+    }
+    return capped - ThreadLocalRandom.current().nextLong(jitterRange + 1);
+  }
+
+  private static void sleep(long millis, RuntimeException conflict) {
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+      throw conflict;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.example.retry;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+@Configuration(proxyBeanMethods = false)
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class RetryConfig {
+
+  /** Runs before the transaction advisor, so each retry gets its own transaction. */
+  public static final int RETRY_ADVISOR_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public Advisor conflictRetryAdvisor(RetryProperties properties, RetryMetrics metrics) {
+    DefaultPointcutAdvisor advisor =
+        new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, RetryOnConflict.class, true),
+            new ConflictRetryInterceptor(properties, metrics));
+    advisor.setOrder(RETRY_ADVISOR_ORDER);
+    return advisor;
+  }
+}
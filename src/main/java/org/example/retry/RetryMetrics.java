@@ -0,0 +1,40 @@
+package org.example.retry;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/** Counters for conflict handling, shared by all {@link RetryOnConflict} methods. */
+@Component
+public class RetryMetrics {
+
+  private final LongAdder conflicts = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder exhausted = new LongAdder();
+
+  void recordConflict() {
+    conflicts.increment();
+  }
+
+  void recordRetry() {
+    retries.increment();
+  }
+
+  void recordExhausted() {
+    exhausted.increment();
+  }
+
+  /** Locking conflicts observed, whether or not they were retried. */
+  public long getConflicts() {
+    return conflicts.sum();
+  }
+
+  /** Attempts started after a conflict. */
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  /** Calls that still failed after the last allowed attempt. */
+  public long getExhausted() {
+    return exhausted.sum();
+  }
+}
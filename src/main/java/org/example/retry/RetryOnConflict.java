@@ -0,0 +1,19 @@
+package org.example.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a {@code @Transactional} method when it loses an optimistic (or pessimistic) locking
+ * race. The retry wraps the transaction, so every attempt starts a fresh one with fresh reads.
+ *
+ * <p>Calls that join an already running transaction are not retried: that transaction is
+ * rollback-only after the conflict and only its owner can start over.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {}
@@ -0,0 +1,25 @@
+package org.example.retry;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.retry")
+public class RetryProperties {
+
+  /** Total number of attempts, including the first call. */
+  private int maxAttempts = 5;
+
+  /** Delay before the first retry. */
+  private Duration initialBackoff = Duration.ofMillis(10);
+
+  /** Upper bound for the exponential delay. */
+  private Duration maxBackoff = Duration.ofMillis(200);
+
+  /** Growth factor applied to the delay after every failed attempt. */
+  private double multiplier = 2.0;
+
+  /** Share of the delay that is randomized: 0 disables jitter, 1 is full jitter. */
+  private double jitter = 0.5;
+}
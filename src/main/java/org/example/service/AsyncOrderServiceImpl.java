@@ -0,0 +1,41 @@
+package org.example.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import org.example.async.AsyncExecutor;
+import org.example.contract.AsyncOrderService;
+import org.example.contract.OrderService;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AsyncOrderServiceImpl implements AsyncOrderService {
+
+  private final OrderService orderService;
+  private final AsyncExecutor asyncExecutor;
+
+  @Override
+  public CompletableFuture<BigDecimal> checkout(String ownerId) {
+    return asyncExecutor.submit(() -> orderService.checkout(ownerId));
+  }
+
+  @Override
+  public CompletableFuture<Void> cancel(String ownerId) {
+    return asyncExecutor.submit(
+        () -> {
+          orderService.cancel(ownerId);
+          return null;
+        });
+  }
+
+  @Override
+  public CompletableFuture<Void> cancel(UUID orderId) {
+    return asyncExecutor.submit(
+        () -> {
+          orderService.cancel(orderId);
+          return null;
+        });
+  }
+}
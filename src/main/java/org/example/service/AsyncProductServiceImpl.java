@@ -0,0 +1,80 @@
+package org.example.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.example.async.AsyncExecutor;
+import org.example.async.AsyncMetrics;
+import org.example.async.ReadCoalescer;
+import org.example.cart.AddToCartGroupCommitter;
+import org.example.cart.GroupCommitProperties;
+import org.example.contract.AsyncProductService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.repository.ProductRepository;
+import org.example.stock.StripedStockService;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AsyncProductServiceImpl implements AsyncProductService {
+
+  private final ProductService productService;
+  private final ProductRepository productRepository;
+  private final StripedStockService stripedStockService;
+  private final AsyncExecutor asyncExecutor;
+  private final AddToCartGroupCommitter groupCommitter;
+  private final GroupCommitProperties groupCommitProperties;
+  private final ReadCoalescer<UUID, Product> productReads;
+  private final ReadCoalescer<UUID, Integer> stockReads;
+
+  public AsyncProductServiceImpl(
+      ProductService productService,
+      ProductRepository productRepository,
+      StripedStockService stripedStockService,
+      AsyncExecutor asyncExecutor,
+      AsyncMetrics asyncMetrics,
+      AddToCartGroupCommitter groupCommitter,
+      GroupCommitProperties groupCommitProperties) {
+    this.productService = productService;
+    this.productRepository = productRepository;
+    this.stripedStockService = stripedStockService;
+    this.asyncExecutor = asyncExecutor;
+    this.groupCommitter = groupCommitter;
+    this.groupCommitProperties = groupCommitProperties;
+    this.productReads = new ReadCoalescer<>(asyncMetrics);
+    this.stockReads = new ReadCoalescer<>(asyncMetrics);
+  }
+
+  @Override
+  public CompletableFuture<Product> addToCart(String ownerId, UUID productId) {
+    if (groupCommitProperties.isEnabled()) {
+      return groupCommitter.addToCart(ownerId, productId);
+    }
+    return asyncExecutor.submit(() -> productService.addToCart(ownerId, productId));
+  }
+
+  @Override
+  public CompletableFuture<List<Product>> addAllToCart(
+      String ownerId, Map<UUID, Integer> quantities) {
+    Map<UUID, Integer> snapshot = Map.copyOf(quantities);
+    return asyncExecutor.submit(() -> productService.addAllToCart(ownerId, snapshot));
+  }
+
+  @Override
+  public CompletableFuture<Product> findProduct(UUID productId) {
+    return productReads.read(productId, id -> asyncExecutor.submit(() -> loadProduct(id)));
+  }
+
+  @Override
+  public CompletableFuture<Integer> availableStock(UUID productId) {
+    return stockReads.read(
+        productId, id -> asyncExecutor.submit(() -> stripedStockService.available(id)));
+  }
+
+  private Product loadProduct(UUID productId) {
+    return productRepository
+        .findById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+}
@@ -1,16 +1,30 @@
 package org.example.service;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.example.contract.OrderService;
 import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.IdempotencyRecord;
+import org.example.entity.IdempotentOperation;
 import org.example.entity.Order;
+import org.example.entity.OrderEventType;
+import org.example.entity.OrderItem;
 import org.example.entity.OrderStatus;
-import org.example.entity.Product;
+import org.example.idempotency.IdempotencyKeys;
+import org.example.metrics.StatementBudget;
+import org.example.money.Money;
+import org.example.outbox.OrderEventOutbox;
 import org.example.repository.CartRepository;
 import org.example.repository.OrderRepository;
 import org.example.repository.ProductRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.retry.RetryOnConflict;
+import org.example.stock.StockReservationEngine;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,77 +32,213 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+  /**
+   * Cart query, order, outbox event and cart version, plus a batch of order line inserts and one of
+   * cart line deletes per 50 lines.
+   */
+  static final int CHECKOUT_STATEMENT_BUDGET = 12;
+
+  /**
+   * Order query and update, outbox event, the order's products, and one restock statement per
+   * stock representation: row and stripe UPDATEs and a batch of pooled unit inserts. With the
+   * reservation engine on, also the order lines it releases.
+   */
+  static final int CANCEL_STATEMENT_BUDGET = 8;
+
   private final OrderRepository orderRepository;
   private final ProductRepository productRepository;
   private final CartRepository cartRepository;
-
+  private final StockStripeRepository stockStripeRepository;
+  private final StockReservationEngine stockReservationEngine;
+  private final OrderEventOutbox orderEventOutbox;
+  private final IdempotencyKeys idempotencyKeys;
+  private final ObjectProvider<OrderServiceImpl> self;
+
+  @RetryOnConflict
+  @StatementBudget(CHECKOUT_STATEMENT_BUDGET)
   @Transactional
   @Override
   public BigDecimal checkout() {
-    // 1. Get current cart
-    Cart cart =
-        cartRepository
-            .findFirstByOrderByIdAsc()
-            .orElseThrow(() -> new IllegalStateException("Cart not found"));
-
-    // 2. Check cart is not empty
-    if (cart.getProducts() == null || cart.getProducts().isEmpty()) {
-      throw new IllegalStateException("Cannot checkout with empty cart");
-    }
+    return checkout(Cart.ANONYMOUS_OWNER_ID);
+  }
 
-    // 3. Create new order
-    Order order = new Order();
-    order.setProducts(new HashSet<>(cart.getProducts()));
-    order.setStatus(OrderStatus.OPEN);
+  @RetryOnConflict
+  @StatementBudget(CHECKOUT_STATEMENT_BUDGET)
+  @Transactional
+  @Override
+  public BigDecimal checkout(String ownerId) {
+    return placeOrder(ownerId).getTotal().toBigDecimal();
+  }
 
-    // 4. Calculate total price
-    BigDecimal totalPrice =
-        cart.getProducts().stream().map(Product::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+  @Override
+  public BigDecimal checkout(String ownerId, String idempotencyKey) {
+    // 1. A retry of a checkout committed recently is answered from memory, outside any transaction
+    Optional<IdempotencyRecord> applied =
+        idempotencyKeys.findCommitted(idempotencyKey, IdempotentOperation.CHECKOUT, ownerId);
+    if (applied.isPresent()) {
+      return applied.get().getTotal().toBigDecimal();
+    }
 
-    // 5. Clear cart
-    cart.getProducts().clear();
-    cartRepository.save(cart);
+    // 2. Otherwise look the key up and place the order in one transaction
+    return self.getObject().checkoutOnce(ownerId, idempotencyKey);
+  }
 
-    // 6. Save order
-    orderRepository.save(order);
+  /**
+   * Transactional part of {@link #checkout(String, String)}; public only so that the call goes
+   * through the transactional proxy.
+   */
+  @RetryOnConflict
+  @StatementBudget(CHECKOUT_STATEMENT_BUDGET + IdempotencyKeys.STATEMENTS)
+  @Transactional
+  public BigDecimal checkoutOnce(String ownerId, String idempotencyKey) {
+    // 1. Replay a checkout already applied under this key
+    Optional<IdempotencyRecord> applied =
+        idempotencyKeys.find(idempotencyKey, IdempotentOperation.CHECKOUT, ownerId);
+    if (applied.isPresent()) {
+      return applied.get().getTotal().toBigDecimal();
+    }
 
-    return totalPrice;
+    // 2. Otherwise place the order and record the key in the same transaction
+    Order order = placeOrder(ownerId);
+    idempotencyKeys.record(
+        idempotencyKey, IdempotentOperation.CHECKOUT, ownerId, order.getId(), order.getTotal());
+    return order.getTotal().toBigDecimal();
   }
 
+  @RetryOnConflict
+  @StatementBudget(CANCEL_STATEMENT_BUDGET)
   @Transactional
   @Override
   public void cancel() {
-    // 1. Find the last open order
-    Order order =
-        ((Iterable<Order>) orderRepository.findAll()).iterator().hasNext()
-            ? ((Iterable<Order>) orderRepository.findAll()).iterator().next()
-            : null;
+    cancel(Cart.ANONYMOUS_OWNER_ID);
+  }
 
-    if (order == null) {
-      throw new IllegalStateException("No order found to cancel");
+  @RetryOnConflict
+  @StatementBudget(CANCEL_STATEMENT_BUDGET)
+  @Transactional
+  @Override
+  public void cancel(String ownerId) {
+    close(latestOpenOrder(ownerId));
+  }
+
+  @Override
+  public void cancel(String ownerId, String idempotencyKey) {
+    // 1. A retry of a cancellation committed recently is done, without a transaction
+    if (idempotencyKeys
+        .findCommitted(idempotencyKey, IdempotentOperation.CANCEL, ownerId)
+        .isPresent()) {
+      return;
     }
 
+    // 2. Otherwise look the key up and cancel in one transaction
+    self.getObject().cancelOnce(ownerId, idempotencyKey);
+  }
+
+  /**
+   * Transactional part of {@link #cancel(String, String)}; public only so that the call goes
+   * through the transactional proxy.
+   */
+  @RetryOnConflict
+  @StatementBudget(CANCEL_STATEMENT_BUDGET + IdempotencyKeys.STATEMENTS)
+  @Transactional
+  public void cancelOnce(String ownerId, String idempotencyKey) {
+    // 1. A cancellation already applied under this key is done
+    if (idempotencyKeys.find(idempotencyKey, IdempotentOperation.CANCEL, ownerId).isPresent()) {
+      return;
+    }
+
+    // 2. Otherwise cancel the latest open order and record the key in the same transaction
+    Order order = latestOpenOrder(ownerId);
+    close(order);
+    idempotencyKeys.record(
+        idempotencyKey, IdempotentOperation.CANCEL, ownerId, order.getId(), null);
+  }
+
+  @RetryOnConflict
+  @StatementBudget(CANCEL_STATEMENT_BUDGET)
+  @Transactional
+  @Override
+  public void cancel(UUID orderId) {
+    // 1. Find the order by id
+    Order order =
+        orderRepository
+            .findById(orderId)
+            .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+
     // 2. Check order status is OPEN
     if (order.getStatus() != OrderStatus.OPEN) {
       throw new IllegalStateException("Cannot cancel order with status: " + order.getStatus());
     }
 
-    // 3. Restore stock for each product
-    for (Product product : order.getProducts()) {
-      Product dbProduct =
-          productRepository
-              .findById(product.getId())
-              .orElseThrow(
-                  () ->
-                      new IllegalStateException(
-                          "Product not found during cancel: " + product.getId()));
-
-      dbProduct.setStock(dbProduct.getStock() + 1);
-      productRepository.save(dbProduct);
+    // 3. Close it and restore stock
+    close(order);
+  }
+
+  private Order placeOrder(String ownerId) {
+    // 1. Get the owner's cart with its lines, leaving the products unloaded
+    Cart cart =
+        cartRepository
+            .findWithItemsByOwnerId(ownerId)
+            .orElseThrow(() -> new IllegalStateException("Cart not found"));
+
+    // 2. Check cart is not empty
+    if (cart.getItems().isEmpty()) {
+      throw new IllegalStateException("Cannot checkout with empty cart");
+    }
+
+    // 3. Calculate total price from the lines' price snapshots in minor units
+    Money totalPrice = Money.total(cart.getItems(), CartItem::getUnitPrice, CartItem::getQuantity);
+
+    // 4. Create new order with a line per cart line, keeping the unit price of each
+    Order order = new Order();
+    order.setOwnerId(ownerId);
+    order.setStatus(OrderStatus.OPEN);
+    order.setTotal(totalPrice);
+    for (CartItem cartItem : cart.getItems()) {
+      OrderItem orderItem = new OrderItem();
+      orderItem.setOrder(order);
+      orderItem.setProduct(cartItem.getProduct());
+      orderItem.setQuantity(cartItem.getQuantity());
+      orderItem.setUnitPrice(cartItem.getUnitPrice());
+      order.getItems().add(orderItem);
     }
 
-    // 4. Set order status to CLOSED
+    // 5. Clear cart
+    cart.getItems().clear();
+    cartRepository.save(cart);
+
+    // 6. Save order
+    orderRepository.save(order);
+
+    // 7. Record the event for downstream consumers in the same transaction
+    orderEventOutbox.append(order, OrderEventType.CHECKED_OUT);
+
+    return order;
+  }
+
+  private Order latestOpenOrder(String ownerId) {
+    return orderRepository
+        .findFirstByOwnerIdAndStatusOrderByCreatedAtDesc(ownerId, OrderStatus.OPEN)
+        .orElseThrow(() -> new IllegalStateException("No order found to cancel"));
+  }
+
+  private void close(Order order) {
+    // 1. Set order status to CLOSED and record the event in the same transaction
     order.setStatus(OrderStatus.CLOSED);
     orderRepository.save(order);
+    orderEventOutbox.append(order, OrderEventType.CANCELLED);
+
+    // 2. Let the reservation engine hand the units out again once they are committed
+    if (stockReservationEngine.isEnabled()) {
+      stockReservationEngine.releaseOnCommit(
+          order.getItems().stream()
+              .collect(
+                  Collectors.toMap(
+                      item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum)));
+    }
+
+    // 3. Restore stock for all order lines with one set-based UPDATE per stock representation
+    productRepository.restockOrder(order.getId());
+    stockStripeRepository.restockOrder(order.getId());
   }
 }
@@ -1,13 +1,39 @@
 package org.example.service;
 
-import java.util.HashSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.example.cart.CartReservationProperties;
+import org.example.contract.AddToCartRequest;
+import org.example.contract.AddToCartResult;
 import org.example.contract.ProductService;
 import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.IdempotencyRecord;
+import org.example.entity.IdempotentOperation;
 import org.example.entity.Product;
+import org.example.exception.InsufficientStockException;
+import org.example.idempotency.IdempotencyKeys;
+import org.example.metrics.StatementBudget;
+import org.example.repository.CartItemRepository;
 import org.example.repository.CartRepository;
 import org.example.repository.ProductRepository;
+import org.example.retry.RetryOnConflict;
+import org.example.stock.StockContentionMonitor;
+import org.example.stock.StockReservationEngine;
+import org.example.stock.StockReservationProperties;
+import org.example.stock.StockUnitPoolService;
+import org.example.stock.StripedStockService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,43 +41,321 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+  /**
+   * Product, reservation, cart and cart line, with room for a new cart on the first add. A striped
+   * product may probe every stripe when they are nearly empty and go over.
+   */
+  static final int ADD_TO_CART_STATEMENT_BUDGET = 8;
+
   private final ProductRepository productRepository;
   private final CartRepository cartRepository;
+  private final CartItemRepository cartItemRepository;
+  private final StripedStockService stripedStockService;
+  private final StockReservationEngine stockReservationEngine;
+  private final StockContentionMonitor stockContentionMonitor;
+  private final StockUnitPoolService stockUnitPoolService;
+  private final StockReservationProperties stockReservationProperties;
+  private final CartReservationProperties cartReservationProperties;
+  private final IdempotencyKeys idempotencyKeys;
+  private final ObjectProvider<ProductServiceImpl> self;
 
+  @RetryOnConflict
+  @StatementBudget(ADD_TO_CART_STATEMENT_BUDGET)
   @Transactional
   @Override
   public Product addToCart(UUID productId) {
-    // 1. Find product by ID
+    return addToCart(Cart.ANONYMOUS_OWNER_ID, productId);
+  }
+
+  @RetryOnConflict
+  @StatementBudget(ADD_TO_CART_STATEMENT_BUDGET)
+  @Transactional
+  @Override
+  public Product addToCart(String ownerId, UUID productId) {
+    // 1. Load product, usually from the second-level cache
     Product product =
         productRepository
             .findById(productId)
             .orElseThrow(
                 () -> new IllegalArgumentException("Product not found with id: " + productId));
 
-    // 2. Check stock availability
-    if (product.getStock() <= 0) {
+    // 2. Reserve one unit and add it to the owner's cart
+    if (!reserveAndAddLine(ownerId, product)) {
       throw new IllegalStateException("Product out of stock: " + product.getName());
     }
+    return product;
+  }
 
-    // 3. Decrease stock
-    product.setStock(product.getStock() - 1);
-    productRepository.save(product);
+  @Override
+  public Product addToCart(String ownerId, UUID productId, String idempotencyKey) {
+    // 1. A retry of a call committed recently is answered from memory, outside any transaction
+    Optional<IdempotencyRecord> applied =
+        idempotencyKeys.findCommitted(idempotencyKey, IdempotentOperation.ADD_TO_CART, ownerId);
+    if (applied.isPresent()) {
+      return replayAddToCart(applied.get(), productId);
+    }
 
-    // 4. Get or create cart (singleton pattern)
-    Cart cart =
-        cartRepository
-            .findFirstByOrderByIdAsc()
-            .orElseGet(
-                () -> {
-                  Cart newCart = new Cart();
-                  newCart.setProducts(new HashSet<>());
-                  return cartRepository.save(newCart);
-                });
+    // 2. Otherwise look the key up and apply the call in one transaction
+    return self.getObject().addToCartOnce(ownerId, productId, idempotencyKey);
+  }
 
-    // 5. Add product to cart
-    cart.getProducts().add(product);
-    cartRepository.save(cart);
+  /**
+   * Transactional part of {@link #addToCart(String, UUID, String)}; public only so that the call
+   * goes through the transactional proxy.
+   */
+  @RetryOnConflict
+  @StatementBudget(ADD_TO_CART_STATEMENT_BUDGET + IdempotencyKeys.STATEMENTS)
+  @Transactional
+  public Product addToCartOnce(String ownerId, UUID productId, String idempotencyKey) {
+    // 1. Replay a call already applied under this key
+    Optional<IdempotencyRecord> applied =
+        idempotencyKeys.find(idempotencyKey, IdempotentOperation.ADD_TO_CART, ownerId);
+    if (applied.isPresent()) {
+      return replayAddToCart(applied.get(), productId);
+    }
 
+    // 2. Otherwise apply it and record the key in the same transaction
+    Product product = addToCart(ownerId, productId);
+    idempotencyKeys.record(
+        idempotencyKey, IdempotentOperation.ADD_TO_CART, ownerId, productId, null);
     return product;
   }
+
+  @RetryOnConflict
+  @Transactional
+  @Override
+  public List<AddToCartResult> addEachToCart(List<AddToCartRequest> requests) {
+    // 1. Load all products with one IN query
+    Map<UUID, Product> products = new HashMap<>();
+    productRepository
+        .findAllById(requests.stream().map(AddToCartRequest::productId).distinct().toList())
+        .forEach(p -> products.put(p.getId(), p));
+
+    // 2. Apply the requests in product id order, so concurrent batches lock rows in one order;
+    //    a failed request has changed nothing and leaves the others alone
+    AddToCartResult[] results = new AddToCartResult[requests.size()];
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      order.add(i);
+    }
+    order.sort(Comparator.comparing(i -> requests.get(i).productId()));
+    for (int i : order) {
+      AddToCartRequest request = requests.get(i);
+      Product product = products.get(request.productId());
+      if (product == null) {
+        results[i] =
+            AddToCartResult.failed(
+                new IllegalArgumentException("Product not found with id: " + request.productId()));
+      } else if (!reserveAndAddLine(request.ownerId(), product)) {
+        results[i] =
+            AddToCartResult.failed(
+                new IllegalStateException("Product out of stock: " + product.getName()));
+      } else {
+        results[i] = AddToCartResult.added(product);
+      }
+    }
+    return List.of(results);
+  }
+
+  @RetryOnConflict
+  @Transactional
+  @Override
+  public List<Product> addAllToCart(Map<UUID, Integer> quantities) {
+    return addAllToCart(Cart.ANONYMOUS_OWNER_ID, quantities);
+  }
+
+  @RetryOnConflict
+  @Transactional
+  @Override
+  public List<Product> addAllToCart(String ownerId, Map<UUID, Integer> quantities) {
+    // 1. Validate requested quantities
+    if (quantities.isEmpty()) {
+      throw new IllegalArgumentException("Nothing to add to cart");
+    }
+    quantities.forEach(
+        (productId, quantity) -> {
+          if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity for product: " + productId);
+          }
+        });
+
+    // 2. Load all products with one IN query
+    SortedMap<UUID, Integer> ordered = new TreeMap<>(quantities);
+    Map<UUID, Product> products = new HashMap<>();
+    productRepository.findAllById(ordered.keySet()).forEach(p -> products.put(p.getId(), p));
+
+    List<UUID> missing = ordered.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+    if (!missing.isEmpty()) {
+      throw new IllegalArgumentException("Products not found with ids: " + missing);
+    }
+
+    // 3. Reserve stock in id order, with one batch (or the engine, or row locks) for single-row
+    //    products, per stripe for striped ones and from the pool for pooled ones; any failure
+    //    rolls back the whole basket
+    SortedMap<UUID, Integer> singleRow = new TreeMap<>();
+    SortedMap<UUID, Integer> split = new TreeMap<>();
+    ordered.forEach(
+        (productId, quantity) -> {
+          Product product = products.get(productId);
+          boolean isSplit = product.isStriped() || product.isStockPooled();
+          (isSplit ? split : singleRow).put(productId, quantity);
+        });
+
+    List<UUID> outOfStock = new ArrayList<>();
+    if (stockReservationEngine.isEnabled()) {
+      singleRow.forEach(
+          (productId, quantity) -> {
+            if (!stockReservationEngine.reserve(productId, quantity)) {
+              outOfStock.add(productId);
+            }
+          });
+    } else if (isPessimistic()) {
+      singleRow.forEach(
+          (productId, quantity) -> {
+            if (!reserveLocked(products.get(productId), quantity)) {
+              outOfStock.add(productId);
+            }
+          });
+    } else if (!singleRow.isEmpty()) {
+      outOfStock.addAll(
+          stockContentionMonitor.measure(
+              singleRow.keySet(), () -> productRepository.reserveStockBatch(singleRow)));
+    }
+    split.forEach(
+        (productId, quantity) -> {
+          Product product = products.get(productId);
+          boolean reserved =
+              product.isStriped()
+                  ? stripedStockService.reserve(product, quantity)
+                  : stockUnitPoolService.reserve(product, quantity);
+          if (!reserved) {
+            outOfStock.add(productId);
+          }
+        });
+    if (!outOfStock.isEmpty()) {
+      throw new InsufficientStockException(outOfStock);
+    }
+
+    // 4. Mirror the batch reservation on the returned products, detached by the batch; the
+    //    engine leaves the rows to its write-behind flush, row locks update them in place
+    if (!stockReservationEngine.isEnabled() && !isPessimistic()) {
+      singleRow.forEach(
+          (productId, quantity) -> {
+            Product product = products.get(productId);
+            product.setStock(product.getStock() - quantity);
+          });
+    }
+
+    // 5. Update the cart lines once: increment existing lines, append new ones, renew reservations;
+    //    a cart or line created concurrently for the owner is retried
+    Cart cart = cartRepository.findWithItemsByOwnerId(ownerId).orElseGet(() -> createCart(ownerId));
+    Map<UUID, CartItem> lines = new HashMap<>();
+    cart.getItems().forEach(item -> lines.put(item.getProduct().getId(), item));
+
+    Instant reservedUntil = reservedUntil();
+    ordered.forEach(
+        (productId, quantity) -> {
+          CartItem line = lines.get(productId);
+          if (line != null) {
+            line.setQuantity(line.getQuantity() + quantity);
+            line.setReservedUntil(reservedUntil);
+          } else {
+            Product product = products.get(productId);
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.setReservedUntil(reservedUntil);
+            cart.getItems().add(item);
+          }
+        });
+    cartRepository.saveItems(cart);
+
+    return ordered.keySet().stream().map(products::get).toList();
+  }
+
+  /**
+   * Reserves one unit of {@code product} and adds it to the owner's cart.
+   *
+   * @return false, without any change, if the product is out of stock
+   */
+  private boolean reserveAndAddLine(String ownerId, Product product) {
+    // 1. Reserve from the stock stripes, the unit pool, the in-memory engine, the locked row, or
+    //    with a single guarded UPDATE
+    UUID productId = product.getId();
+    boolean reserved;
+    if (product.isStriped()) {
+      reserved = stripedStockService.reserve(product, 1);
+    } else if (product.isStockPooled()) {
+      reserved = stockUnitPoolService.reserve(product, 1);
+    } else if (stockReservationEngine.isEnabled()) {
+      reserved = stockReservationEngine.reserve(productId, 1);
+    } else if (isPessimistic()) {
+      reserved = reserveLocked(product, 1);
+    } else {
+      reserved =
+          stockContentionMonitor.measure(
+                  productId, () -> productRepository.reserveStock(productId, 1))
+              > 0;
+      if (reserved) {
+        // Mirror the reservation on the returned product, detached by the UPDATE
+        product.setStock(product.getStock() - 1);
+      }
+    }
+
+    if (!reserved) {
+      return false;
+    }
+
+    // 2. Get or create the owner's cart; a concurrent first add for the owner is retried
+    Cart cart = cartRepository.findByOwnerId(ownerId).orElseGet(() -> createCart(ownerId));
+
+    // 3. Increment the existing cart line in place, or add a new one; both renew the reservation,
+    //    and a line added concurrently for the same product is retried
+    Instant reservedUntil = reservedUntil();
+    if (cartItemRepository.incrementQuantity(cart.getId(), productId, 1, reservedUntil) == 0) {
+      CartItem item = new CartItem();
+      item.setCart(cart);
+      item.setProduct(product);
+      item.setQuantity(1);
+      item.setUnitPrice(product.getPrice());
+      item.setReservedUntil(reservedUntil);
+      cartItemRepository.insert(item);
+    }
+    return true;
+  }
+
+  private Product replayAddToCart(IdempotencyRecord applied, UUID productId) {
+    if (!productId.equals(applied.getResultId())) {
+      throw new IllegalArgumentException(
+          "Idempotency key already used for another request: " + applied.getIdempotencyKey());
+    }
+    return productRepository
+        .findById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+
+  private boolean isPessimistic() {
+    return stockReservationProperties.getLocking()
+        == StockReservationProperties.Locking.PESSIMISTIC;
+  }
+
+  private boolean reserveLocked(Product product, int quantity) {
+    Duration lockTimeout = stockReservationProperties.getLockTimeout();
+    return stockContentionMonitor.measure(
+            product.getId(),
+            () -> productRepository.reserveStockLocked(product, quantity, lockTimeout))
+        > 0;
+  }
+
+  private Instant reservedUntil() {
+    return Instant.now().plus(cartReservationProperties.getTtl());
+  }
+
+  private Cart createCart(String ownerId) {
+    Cart cart = new Cart();
+    cart.setOwnerId(ownerId);
+    return cartRepository.insert(cart);
+  }
 }
@@ -0,0 +1,75 @@
+package org.example.stock;
+
+import jakarta.persistence.LockTimeoutException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import org.springframework.dao.CannotAcquireLockException;
+
+/** Lock failures told apart by {@link #of(Throwable)}. */
+public enum LockFailure {
+  /** Gave up waiting for a row lock. */
+  LOCK_TIMEOUT,
+  /** Chosen as the victim of a deadlock. */
+  DEADLOCK,
+  /** Rolled back because the transaction could not be serialized with a concurrent one. */
+  SERIALIZATION;
+
+  /** H2 {@code LOCK_TIMEOUT_1} and {@code DEADLOCK_1}. */
+  private static final int H2_LOCK_TIMEOUT = 50200;
+
+  private static final int H2_DEADLOCK = 40001;
+
+  /** MySQL {@code ER_LOCK_WAIT_TIMEOUT} and {@code ER_LOCK_DEADLOCK}. */
+  private static final int MYSQL_LOCK_TIMEOUT = 1205;
+
+  private static final int MYSQL_DEADLOCK = 1213;
+
+  /**
+   * Classifies {@code failure} by the SQLState or vendor code of the SQL exception in its cause
+   * chain, for H2, PostgreSQL and MySQL, and otherwise by the lock timeout exception types of
+   * Spring, JPA and JDBC.
+   *
+   * @return the kind of lock failure, or null if {@code failure} is not one
+   */
+  public static LockFailure of(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = next(cause)) {
+      if (cause instanceof SQLException sql) {
+        LockFailure fromSql = fromSql(sql);
+        if (fromSql != null) {
+          return fromSql;
+        }
+      }
+    }
+    for (Throwable cause = failure; cause != null; cause = next(cause)) {
+      if (cause instanceof CannotAcquireLockException
+          || cause instanceof LockTimeoutException
+          || cause instanceof SQLTimeoutException) {
+        return LOCK_TIMEOUT;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * SQLState 40001 is a deadlock on H2 and MySQL, told apart by their vendor codes, but a
+   * serialization failure on PostgreSQL, which reports deadlocks as 40P01.
+   */
+  static LockFailure fromSql(SQLException sql) {
+    String state = sql.getSQLState() == null ? "" : sql.getSQLState();
+    int code = sql.getErrorCode();
+    if (state.equals("40P01") || code == H2_DEADLOCK || code == MYSQL_DEADLOCK) {
+      return DEADLOCK;
+    }
+    if (state.equals("40001")) {
+      return SERIALIZATION;
+    }
+    if (state.equals("55P03") || code == H2_LOCK_TIMEOUT || code == MYSQL_LOCK_TIMEOUT) {
+      return LOCK_TIMEOUT;
+    }
+    return null;
+  }
+
+  private static Throwable next(Throwable cause) {
+    return cause.getCause() == cause ? null : cause.getCause();
+  }
+}
@@ -0,0 +1,21 @@
+package org.example.stock;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+import java.sql.SQLException;
+
+/**
+ * Keeps Hikari from evicting a connection whose statement lost a lock. H2 reports lock timeouts as
+ * {@link java.sql.SQLTimeoutException}, which Hikari takes for a broken connection: the rollback
+ * then fails and the retryable lock failure turns into a "connection is closed" error.
+ *
+ * <p>Registered with {@code spring.datasource.hikari.exception-override-class-name}.
+ */
+public class LockFailureExceptionOverride implements SQLExceptionOverride {
+
+  @java.lang.Override
+  public Override adjudicate(SQLException sqlException) {
+    return LockFailure.fromSql(sqlException) != null
+        ? Override.DO_NOT_EVICT
+        : Override.CONTINUE_EVICT;
+  }
+}
@@ -0,0 +1,19 @@
+package org.example.stock;
+
+import org.example.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class StockConfig {
+
+  @Bean
+  @ConditionalOnProperty(prefix = "app.stock.rebalance", name = "enabled", matchIfMissing = true)
+  public StripeRebalancer stripeRebalancer(
+      ProductRepository productRepository, StripedStockService stripedStockService) {
+    return new StripeRebalancer(productRepository, stripedStockService);
+  }
+}
@@ -0,0 +1,23 @@
+package org.example.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code stockcontention}: the hottest products by lock wait. Exposed over JMX
+ * in the prod profile, and callable in-process like any other bean.
+ */
+@Component
+@Endpoint(id = "stockcontention")
+@RequiredArgsConstructor
+public class StockContentionEndpoint {
+
+  private final StockContentionMonitor monitor;
+
+  @ReadOperation
+  public StockContentionReport hottest() {
+    return monitor.report();
+  }
+}
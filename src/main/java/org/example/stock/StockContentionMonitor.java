@@ -0,0 +1,213 @@
+package org.example.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.example.metrics.JdbcActivity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Measures the statements that lock stock rows, per product and per transaction, and counts the
+ * lock timeouts, deadlocks and serialization failures they run into by product and service method.
+ * Keeps a rolling window of per-product statistics for the hottest-products report.
+ */
+@Component
+public class StockContentionMonitor {
+
+  static final String NO_OPERATION = "none";
+
+  private final MeterRegistry registry;
+  private final Timer lockWait;
+  private final int top;
+  private final long sliceNanos;
+  private final AtomicReferenceArray<Slice> slices;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  public StockContentionMonitor(StockContentionProperties properties, MeterRegistry registry) {
+    if (properties.getSlices() < 1 || properties.getWindow().compareTo(Duration.ZERO) <= 0) {
+      throw new IllegalArgumentException("Contention window must be positive, in 1+ slices");
+    }
+    this.registry = registry;
+    this.lockWait =
+        Timer.builder("shop.stock.lock.wait")
+            .description("Time spent in statements that lock stock rows")
+            .publishPercentileHistogram()
+            .register(registry);
+    this.top = properties.getTop();
+    this.sliceNanos = Math.max(properties.getWindow().toNanos() / properties.getSlices(), 1);
+    this.slices = new AtomicReferenceArray<>(properties.getSlices());
+  }
+
+  /** Runs {@code lockingCall}, which locks the stock rows of {@code productId}. */
+  public <T> T measure(UUID productId, Supplier<T> lockingCall) {
+    return measure(List.of(productId), lockingCall);
+  }
+
+  /**
+   * Runs {@code lockingCall}, which locks the stock rows of all {@code productIds} in one go. The
+   * wait is shared out evenly, and a failure counts for every product, since the statement does not
+   * tell which row it was waiting for.
+   */
+  public <T> T measure(Collection<UUID> productIds, Supplier<T> lockingCall) {
+    // 1. Write the pending changes first: the locking statements flush before they run, and that
+    //    time is not lock wait
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      entityManager.flush();
+    }
+
+    // 2. Time the locking statement alone
+    long start = System.nanoTime();
+    try {
+      T result = lockingCall.get();
+      record(productIds, System.nanoTime() - start, null);
+      return result;
+    } catch (RuntimeException e) {
+      record(productIds, System.nanoTime() - start, LockFailure.of(e));
+      throw e;
+    }
+  }
+
+  private void record(Collection<UUID> productIds, long waitNanos, LockFailure failure) {
+    // 1. Per transaction and overall
+    JdbcActivity.recordLockWait(waitNanos);
+    lockWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    JdbcActivity activity = JdbcActivity.current();
+    String operation = activity == null ? NO_OPERATION : activity.getOperation();
+    if (failure != null) {
+      Counter.builder("shop.stock.lock.failures")
+          .description("Lock timeouts, deadlocks and serialization failures on stock rows")
+          .tags("failure", failure.name().toLowerCase(Locale.ROOT), "operation", operation)
+          .register(registry)
+          .increment();
+    }
+
+    // 2. Per product, in the current slice of the window
+    if (productIds.isEmpty()) {
+      return;
+    }
+    Slice slice = currentSlice();
+    long share = waitNanos / productIds.size();
+    for (UUID productId : productIds) {
+      slice.products
+          .computeIfAbsent(productId, id -> new ProductStats())
+          .record(share, failure, operation);
+    }
+  }
+
+  /** The hottest products by total lock wait over the window. */
+  public StockContentionReport report() {
+    // 1. Merge the slices that are still inside the window
+    long now = System.nanoTime() / sliceNanos;
+    Map<UUID, StockContentionReport.HotProduct> merged = new HashMap<>();
+    for (int i = 0; i < slices.length(); i++) {
+      Slice slice = slices.get(i);
+      if (slice == null || now - slice.epoch >= slices.length()) {
+        continue;
+      }
+      slice.products.forEach(
+          (productId, stats) ->
+              merged.merge(productId, stats.snapshot(productId), StockContentionMonitor::add));
+    }
+
+    // 2. Keep the top ones
+    List<StockContentionReport.HotProduct> hottest = new ArrayList<>(merged.values());
+    hottest.sort(Comparator.comparing(StockContentionReport.HotProduct::lockWait).reversed());
+    return new StockContentionReport(
+        Duration.ofNanos(sliceNanos * slices.length()),
+        List.copyOf(hottest.subList(0, Math.min(top, hottest.size()))));
+  }
+
+  private Slice currentSlice() {
+    long epoch = System.nanoTime() / sliceNanos;
+    int index = (int) Math.floorMod(epoch, (long) slices.length());
+    Slice slice = slices.get(index);
+    if (slice != null && slice.epoch == epoch) {
+      return slice;
+    }
+    Slice fresh = new Slice(epoch);
+    return slices.compareAndSet(index, slice, fresh) ? fresh : slices.get(index);
+  }
+
+  private static StockContentionReport.HotProduct add(
+      StockContentionReport.HotProduct a, StockContentionReport.HotProduct b) {
+    Map<String, Long> failures = new TreeMap<>(a.failuresByOperation());
+    b.failuresByOperation()
+        .forEach((operation, count) -> failures.merge(operation, count, Long::sum));
+    return new StockContentionReport.HotProduct(
+        a.productId(),
+        a.lockWait().plus(b.lockWait()),
+        a.maxLockWait().compareTo(b.maxLockWait()) >= 0 ? a.maxLockWait() : b.maxLockWait(),
+        a.locks() + b.locks(),
+        a.lockTimeouts() + b.lockTimeouts(),
+        a.deadlocks() + b.deadlocks(),
+        a.serializationFailures() + b.serializationFailures(),
+        failures);
+  }
+
+  private record Slice(long epoch, Map<UUID, ProductStats> products) {
+
+    Slice(long epoch) {
+      this(epoch, new ConcurrentHashMap<>());
+    }
+  }
+
+  private static final class ProductStats {
+
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder locks = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+    private final LongAdder deadlocks = new LongAdder();
+    private final LongAdder serializationFailures = new LongAdder();
+    private final Map<String, LongAdder> failuresByOperation = new ConcurrentHashMap<>();
+
+    void record(long nanos, LockFailure failure, String operation) {
+      waitNanos.add(nanos);
+      maxWaitNanos.accumulate(nanos);
+      locks.increment();
+      if (failure == null) {
+        return;
+      }
+      switch (failure) {
+        case LOCK_TIMEOUT -> lockTimeouts.increment();
+        case DEADLOCK -> deadlocks.increment();
+        case SERIALIZATION -> serializationFailures.increment();
+      }
+      failuresByOperation.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+
+    StockContentionReport.HotProduct snapshot(UUID productId) {
+      Map<String, Long> failures = new TreeMap<>();
+      failuresByOperation.forEach((operation, count) -> failures.put(operation, count.sum()));
+      return new StockContentionReport.HotProduct(
+          productId,
+          Duration.ofNanos(waitNanos.sum()),
+          Duration.ofNanos(maxWaitNanos.get()),
+          locks.sum(),
+          lockTimeouts.sum(),
+          deadlocks.sum(),
+          serializationFailures.sum(),
+          failures);
+    }
+  }
+}
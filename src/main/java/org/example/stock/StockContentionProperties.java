@@ -0,0 +1,19 @@
+package org.example.stock;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.stock.contention")
+public class StockContentionProperties {
+
+  /** How far back the hottest-products report looks. */
+  private Duration window = Duration.ofMinutes(1);
+
+  /** Slices the window rolls over in; the report covers the current slice plus the full ones. */
+  private int slices = 6;
+
+  /** Products listed in the report. */
+  private int top = 10;
+}
@@ -0,0 +1,35 @@
+package org.example.stock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Products that waited longest for their stock row locks within the window, hottest first.
+ *
+ * @param window how far back the report looks
+ * @param hottest at most {@code app.stock.contention.top} products
+ */
+public record StockContentionReport(Duration window, List<HotProduct> hottest) {
+
+  /**
+   * Lock statistics of one product.
+   *
+   * @param lockWait time spent in statements that lock the product's stock rows
+   * @param maxLockWait longest single wait
+   * @param locks statements that took, or tried to take, the locks
+   * @param serializationFailures transactions rolled back as not serializable, on PostgreSQL
+   * @param failuresByOperation lock timeouts, deadlocks and serialization failures per service
+   *     method
+   */
+  public record HotProduct(
+      UUID productId,
+      Duration lockWait,
+      Duration maxLockWait,
+      long locks,
+      long lockTimeouts,
+      long deadlocks,
+      long serializationFailures,
+      Map<String, Long> failuresByOperation) {}
+}
@@ -0,0 +1,15 @@
+package org.example.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.stock.engine")
+public class StockEngineProperties {
+
+  /** Reserves single-row stock in memory and writes it behind through the stock ledger. */
+  private boolean enabled = false;
+
+  /** Ledger entries applied per flush transaction. */
+  private int flushBatchSize = 1000;
+}
@@ -0,0 +1,47 @@
+package org.example.stock;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.StockLedgerEntry;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockLedgerRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Moves pending {@link StockLedgerEntry stock ledger entries} into {@code products.stock}. */
+@Component
+@RequiredArgsConstructor
+public class StockLedgerFlusher {
+
+  private final StockLedgerRepository stockLedgerRepository;
+  private final ProductRepository productRepository;
+
+  /**
+   * Applies the oldest pending entries and deletes exactly those entries, in one transaction, so
+   * the row stock plus the pending entries stays the same throughout.
+   *
+   * @return number of applied entries
+   */
+  @Transactional
+  public int flushBatch(int batchSize) {
+    // 1. Lock the oldest entries
+    List<StockLedgerEntry> entries = stockLedgerRepository.lockOldest(Limit.of(batchSize));
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    // 2. Net them per product, in id order so product rows are always locked in the same order
+    SortedMap<UUID, Integer> deltas = new TreeMap<>();
+    entries.forEach(entry -> deltas.merge(entry.getProductId(), entry.getQuantity(), Integer::sum));
+
+    // 3. Apply one UPDATE per product and drop the applied entries
+    productRepository.applyStockDeltas(deltas);
+    stockLedgerRepository.deleteAllByIds(entries.stream().map(StockLedgerEntry::getId).toList());
+
+    return entries.size();
+  }
+}
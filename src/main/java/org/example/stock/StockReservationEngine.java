@@ -0,0 +1,283 @@
+package org.example.stock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.StockLedgerEntry;
+import org.example.repository.StockLedgerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reserves single-row stock with a compare-and-set on an in-memory counter per product instead of
+ * a guarded UPDATE of the product row.
+ *
+ * <p>The database stays the source of truth: every reservation appends a {@link StockLedgerEntry}
+ * in the caller's transaction, and {@link #flush()} periodically nets those entries into {@code
+ * products.stock}. A counter is loaded on first use as the row stock plus the pending entries, so
+ * after a crash the counters rebuild from committed data only; reservations of transactions that
+ * never committed are gone together with their ledger entries.
+ *
+ * <p>Switching the engine off takes a restart, which applies the pending entries before the
+ * guarded UPDATEs read {@code products.stock} again. Striping or pooling a product takes it out of
+ * the engine through {@link #retire(UUID)}.
+ *
+ * <p>The counters live in this JVM only, so the engine assumes a single application instance: two
+ * instances would each hand out the same stock from their own counter. Run more instances with the
+ * engine disabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationEngine implements SmartInitializingSingleton {
+
+  private final StockEngineProperties properties;
+  private final StockLedgerRepository stockLedgerRepository;
+  private final StockLedgerFlusher stockLedgerFlusher;
+
+  private final ConcurrentMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+  /** Restocks registered through {@link #releaseOnCommit} that have not completed, per product. */
+  private final ConcurrentMap<UUID, Integer> releasing = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * Reserves {@code quantity} units of a single-row product. The units go back to the counter if
+   * the surrounding transaction rolls back.
+   *
+   * @return true if reserved, false if the product lacks stock
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean reserve(UUID productId, int quantity) {
+    // 1. Announce the reservation before checking the counter, so retire() either sees it running
+    //    or this call sees the counter retired
+    Counter counter = counter(productId);
+    counter.inFlight.incrementAndGet();
+    boolean reserved = false;
+    try {
+      if (counter.retired) {
+        throw new CannotAcquireLockException(
+            "Stock of product " + productId + " is changing representation");
+      }
+
+      // 2. Take the units from the counter with a CAS loop
+      AtomicLong available = counter.available;
+      long current;
+      do {
+        current = available.get();
+        if (current < quantity) {
+          return false;
+        }
+      } while (!available.compareAndSet(current, current - quantity));
+
+      // 3. Give the units back if the caller's transaction rolls back, and end the reservation
+      //    once it completes either way
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status == STATUS_ROLLED_BACK) {
+                available.addAndGet(quantity);
+              }
+              counter.inFlight.decrementAndGet();
+            }
+          });
+      reserved = true;
+
+      // 4. Record the reservation in the caller's transaction
+      StockLedgerEntry entry = new StockLedgerEntry();
+      entry.setProductId(productId);
+      entry.setQuantity(-quantity);
+      stockLedgerRepository.save(entry);
+      return true;
+    } finally {
+      if (!reserved) {
+        counter.inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Takes a product out of the engine in the transaction that stripes, pools or unstripes its
+   * stock. Until that transaction completes, reservations of the product fail with a conflict and
+   * are retried; afterwards the counter is dropped, so a later use reloads it from the rows.
+   *
+   * @return net quantity of the pending ledger entries of the product, deleted here, which the
+   *     caller must apply to the stock it moves
+   * @throws CannotAcquireLockException if reservations of the product are still running; their
+   *     entries would reach the ledger after the stock moved
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public int retire(UUID productId) {
+    // 1. Refuse new reservations until the switch completes
+    Counter counter = counters.computeIfAbsent(productId, id -> new Counter(0));
+    counter.retired = true;
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            counters.remove(productId, counter);
+          }
+        });
+
+    // 2. Wait for none still running
+    if (counter.inFlight.get() > 0) {
+      throw new CannotAcquireLockException(
+          "Stock of product " + productId + " has reservations in flight");
+    }
+
+    // 3. Take the pending entries of the product out of the ledger
+    List<StockLedgerEntry> pending = stockLedgerRepository.lockAllByProductId(productId);
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    stockLedgerRepository.deleteAllByIds(pending.stream().map(StockLedgerEntry::getId).toList());
+    return pending.stream().mapToInt(StockLedgerEntry::getQuantity).sum();
+  }
+
+  /**
+   * Adds units put back into {@code products.stock}, by a cancelled order or an expired cart line,
+   * to the loaded counters once that restock commits. Must be called before the restock UPDATE.
+   *
+   * <p>Until the transaction completes, no counter of these products is loaded: a read of the rows
+   * could not tell whether it saw the restock, so the counter could miss the units or count them
+   * twice. Reservations of the products meanwhile fail with a conflict and are retried; counters
+   * loaded afterwards read the restocked rows themselves.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void releaseOnCommit(Map<UUID, Integer> quantities) {
+    // 1. Hold off loading the counters of the products
+    Map<UUID, Integer> released = Map.copyOf(quantities);
+    released.keySet().forEach(productId -> releasing.merge(productId, 1, Integer::sum));
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            // 2. Add the units to the counters loaded before the restock, after any load still
+            //    running for the product
+            released.forEach(
+                (productId, quantity) ->
+                    counters.computeIfPresent(
+                        productId,
+                        (id, counter) -> {
+                          counter.available.addAndGet(quantity);
+                          return counter;
+                        }));
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            // 3. Let the next use load the counters from the committed rows
+            released
+                .keySet()
+                .forEach(
+                    productId ->
+                        releasing.computeIfPresent(
+                            productId, (id, pending) -> pending == 1 ? null : pending - 1));
+          }
+        });
+  }
+
+  /**
+   * Stock the engine can still hand out for a product, loading its counter on first use. A retired
+   * product, or one whose counter cannot load during a restock, reports the rows instead.
+   */
+  public long available(UUID productId) {
+    Counter counter;
+    try {
+      counter = counter(productId);
+    } catch (CannotAcquireLockException e) {
+      return loadAvailable(productId);
+    }
+    if (counter.retired) {
+      return loadAvailable(productId);
+    }
+    return counter.available.get();
+  }
+
+  @Scheduled(fixedDelayString = "${app.stock.engine.flush-interval:PT1S}")
+  public void flushPeriodically() {
+    if (isEnabled()) {
+      flush();
+    }
+  }
+
+  /**
+   * Applies all pending ledger entries to the product rows, one batch per transaction.
+   *
+   * @return number of applied entries
+   */
+  public int flush() {
+    int batchSize = properties.getFlushBatchSize();
+    int total = 0;
+    int applied;
+    do {
+      applied = stockLedgerFlusher.flushBatch(batchSize);
+      total += applied;
+    } while (applied == batchSize);
+    return total;
+  }
+
+  /**
+   * Reconciles on startup, even with the engine disabled: entries left by a previous run are
+   * applied before the first reservation of any kind reads {@code products.stock}.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    int applied = flush();
+    if (applied > 0) {
+      log.info("Applied {} pending stock ledger entries on startup", applied);
+    }
+  }
+
+  private Counter counter(UUID productId) {
+    return counters.computeIfAbsent(productId, this::loadCounter);
+  }
+
+  /**
+   * Reads the rows first and checks for a restock in flight afterwards: a restock registered after
+   * that check commits its UPDATE after the read, and adds its units once this load completes.
+   */
+  private Counter loadCounter(UUID productId) {
+    long available = loadAvailable(productId);
+    if (releasing.containsKey(productId)) {
+      throw new CannotAcquireLockException(
+          "Stock of product " + productId + " is being restocked");
+    }
+    return new Counter(available);
+  }
+
+  private long loadAvailable(UUID productId) {
+    return stockLedgerRepository
+        .findAvailableStock(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+
+  /** Available stock of a product, and the reservations whose transactions have not completed. */
+  private static final class Counter {
+
+    final AtomicLong available;
+    final AtomicInteger inFlight = new AtomicInteger();
+    volatile boolean retired;
+
+    Counter(long available) {
+      this.available = new AtomicLong(available);
+    }
+  }
+}
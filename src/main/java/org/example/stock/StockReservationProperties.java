@@ -0,0 +1,27 @@
+package org.example.stock;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.stock.reservation")
+public class StockReservationProperties {
+
+  /** How single-row products are reserved; striped, pooled and engine stock are unaffected. */
+  private Locking locking = Locking.GUARDED_UPDATE;
+
+  /**
+   * Longest wait for the product row lock in {@link Locking#PESSIMISTIC} mode. Passed to the
+   * dialect as the JPA lock timeout; a database without {@code FOR UPDATE WAIT} applies its own
+   * lock timeout instead.
+   */
+  private Duration lockTimeout = Duration.ofSeconds(2);
+
+  public enum Locking {
+    /** One {@code UPDATE ... WHERE stock >= ?}: the check and the decrement in a statement. */
+    GUARDED_UPDATE,
+    /** {@code SELECT ... FOR UPDATE}, check in Java, then write the product back. */
+    PESSIMISTIC
+  }
+}
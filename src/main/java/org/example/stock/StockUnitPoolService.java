@@ -0,0 +1,130 @@
+package org.example.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.Product;
+import org.example.entity.StockUnit;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockUnitRepository;
+import org.example.retry.RetryOnConflict;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Pooled stock for hot products: one {@link StockUnit} row per available unit. Buyers claim units
+ * with {@code FOR UPDATE SKIP LOCKED}, so concurrent buyers of the same product take different
+ * rows and none of them waits for another's commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockUnitPoolService {
+
+  private final ProductRepository productRepository;
+  private final StockUnitRepository stockUnitRepository;
+  private final StockContentionMonitor stockContentionMonitor;
+  private final StockReservationEngine stockReservationEngine;
+
+  @RetryOnConflict
+  @Transactional
+  public void enablePooling(UUID productId) {
+    // 1. Validate the product, out of the engine until the switch completes
+    int pending = stockReservationEngine.retire(productId);
+    Product product = lockProduct(productId);
+    if (product.isStriped() || product.isStockPooled()) {
+      throw new IllegalStateException("Product stock is already split: " + product.getName());
+    }
+
+    // 2. Turn the row stock, net of the engine's pending reservations, into units; a reservation
+    //    racing with us waits for the row lock and then finds the product pooled
+    addUnits(product, product.getStock() + pending);
+    product.setStock(0);
+    product.setStockPooled(true);
+    productRepository.save(product);
+  }
+
+  @RetryOnConflict
+  @Transactional
+  public void disablePooling(UUID productId) {
+    // 1. Validate the product, out of the engine until the switch completes
+    int pending = stockReservationEngine.retire(productId);
+    Product product = lockProduct(productId);
+    if (!product.isStockPooled()) {
+      throw new IllegalStateException("Product is not pooled: " + product.getName());
+    }
+
+    // 2. Remove all units, waiting for claims in flight, and count them back into the row
+    int units = stockUnitRepository.deleteAllByProductId(productId);
+    product = lockProduct(productId);
+    product.setStock(product.getStock() + units + pending);
+    product.setStockPooled(false);
+    productRepository.save(product);
+  }
+
+  /**
+   * Reserves {@code quantity} units of a pooled product by claiming and deleting their rows.
+   *
+   * @return true if reserved, false if the product lacks stock
+   * @throws CannotAcquireLockException if the units exist but other running transactions hold
+   *     them; they may still roll back, so the caller should retry
+   */
+  @Transactional
+  public boolean reserve(Product product, int quantity) {
+    // 1. Claim units nobody else holds
+    UUID productId = product.getId();
+    List<StockUnit> claimed =
+        stockContentionMonitor.measure(
+            productId, () -> stockUnitRepository.claim(productId, Limit.of(quantity)));
+
+    // 2. Tell a sold-out product from one whose units are all taken for now
+    if (claimed.size() < quantity) {
+      if (stockUnitRepository.countByProductId(productId) >= quantity) {
+        throw new CannotAcquireLockException(
+            "Stock units of " + product.getName() + " are claimed by running transactions");
+      }
+      return false;
+    }
+
+    // 3. Consume the claimed units
+    stockUnitRepository.deleteAllByIds(claimed.stream().map(StockUnit::getId).toList());
+    return true;
+  }
+
+  /** Puts {@code quantity} units of a pooled product back. */
+  @Transactional
+  public void restock(UUID productId, int quantity) {
+    addUnits(findProduct(productId), quantity);
+  }
+
+  /** Committed units of a pooled product. */
+  @Transactional(readOnly = true)
+  public int available(UUID productId) {
+    return (int) stockUnitRepository.countByProductId(productId);
+  }
+
+  private void addUnits(Product product, int quantity) {
+    List<StockUnit> units = new ArrayList<>(quantity);
+    for (int i = 0; i < quantity; i++) {
+      StockUnit unit = new StockUnit();
+      unit.setProduct(product);
+      units.add(unit);
+    }
+    stockUnitRepository.saveAll(units);
+  }
+
+  /** The locked product with its current stock, which the switch moves to another form. */
+  private Product lockProduct(UUID productId) {
+    return productRepository
+        .lockById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+
+  private Product findProduct(UUID productId) {
+    return productRepository
+        .findById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+}
@@ -0,0 +1,27 @@
+package org.example.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Product;
+import org.example.repository.ProductRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/** Periodically evens out the stripes of every striped product, one transaction per product. */
+@Slf4j
+@RequiredArgsConstructor
+public class StripeRebalancer {
+
+  private final ProductRepository productRepository;
+  private final StripedStockService stripedStockService;
+
+  @Scheduled(fixedDelayString = "${app.stock.rebalance.interval:PT5S}")
+  public void rebalanceAll() {
+    for (Product product : productRepository.findAllByStockStripesGreaterThan(0)) {
+      try {
+        stripedStockService.rebalance(product.getId());
+      } catch (RuntimeException e) {
+        log.warn("Failed to rebalance stock stripes of product {}", product.getId(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package org.example.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.Product;
+import org.example.entity.StockStripe;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockLedgerRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.repository.StockUnitRepository;
+import org.example.retry.RetryOnConflict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Striped stock for hot products: the stock is split over several {@link StockStripe} rows, so
+ * concurrent reservations lock different rows instead of queueing on the product row.
+ */
+@Service
+@RequiredArgsConstructor
+public class StripedStockService {
+
+  private final ProductRepository productRepository;
+  private final StockStripeRepository stockStripeRepository;
+  private final StockLedgerRepository stockLedgerRepository;
+  private final StockUnitRepository stockUnitRepository;
+  private final StockContentionMonitor stockContentionMonitor;
+  private final StockReservationEngine stockReservationEngine;
+
+  @RetryOnConflict
+  @Transactional
+  public void enableStriping(UUID productId, int stripes) {
+    // 1. Validate the stripe count and the product, out of the engine until the switch completes
+    if (stripes < 2) {
+      throw new IllegalArgumentException("Stripe count must be at least 2: " + stripes);
+    }
+    int pending = stockReservationEngine.retire(productId);
+    Product product = lockProduct(productId);
+    if (product.isStriped()) {
+      throw new IllegalStateException("Product is already striped: " + product.getName());
+    }
+    if (product.isStockPooled()) {
+      throw new IllegalStateException("Product is pooled: " + product.getName());
+    }
+
+    // 2. Spread the current stock, net of the engine's pending reservations, over the stripes
+    int stock = product.getStock() + pending;
+    List<StockStripe> created = new ArrayList<>();
+    for (int i = 0; i < stripes; i++) {
+      StockStripe stripe = new StockStripe();
+      stripe.setProduct(product);
+      stripe.setStripe(i);
+      stripe.setStock(share(stock, stripes, i));
+      created.add(stripe);
+    }
+    stockStripeRepository.saveAll(created);
+
+    // 3. Empty the product row; a reservation racing with us waits for the row lock and then
+    //    finds the product striped
+    product.setStock(0);
+    product.setStockStripes(stripes);
+    productRepository.save(product);
+  }
+
+  @RetryOnConflict
+  @Transactional
+  public void disableStriping(UUID productId) {
+    // 1. Validate the product, out of the engine until the switch completes
+    int pending = stockReservationEngine.retire(productId);
+    Product product = lockProduct(productId);
+    if (!product.isStriped()) {
+      throw new IllegalStateException("Product is not striped: " + product.getName());
+    }
+
+    // 2. Lock and remove all stripes
+    List<StockStripe> stripes = stockStripeRepository.lockAllByProductId(productId);
+    stockStripeRepository.deleteAll(stripes);
+
+    // 3. Move their sum back to the product row
+    product.setStock(product.getStock() + total(stripes) + pending);
+    product.setStockStripes(0);
+    productRepository.save(product);
+  }
+
+  /**
+   * Reserves {@code quantity} units of a striped product. Starts at a random stripe so concurrent
+   * callers spread over the row locks, falls back to the other stripes in turn, and only locks all
+   * stripes when no single one holds enough.
+   *
+   * @return true if reserved, false if the product lacks stock
+   */
+  @Transactional
+  public boolean reserve(Product product, int quantity) {
+    UUID productId = product.getId();
+    int stripes = product.getStockStripes();
+
+    // 1. Try one stripe at a time, starting at a random one
+    int first = ThreadLocalRandom.current().nextInt(stripes);
+    for (int i = 0; i < stripes; i++) {
+      int stripe = (first + i) % stripes;
+      if (stockContentionMonitor.measure(
+              productId, () -> stockStripeRepository.reserve(productId, stripe, quantity))
+          > 0) {
+        return true;
+      }
+    }
+
+    // 2. Skip the locks when the stripes cannot cover the quantity together either
+    if (stockStripeRepository.sumStock(productId) < quantity) {
+      return false;
+    }
+
+    // 3. Lock all stripes in order and drain them one after another
+    List<StockStripe> locked =
+        stockContentionMonitor.measure(
+            productId, () -> stockStripeRepository.lockAllByProductId(productId));
+    if (total(locked) < quantity) {
+      return false;
+    }
+    int remaining = quantity;
+    for (StockStripe stripe : locked) {
+      int taken = Math.min(stripe.getStock(), remaining);
+      stripe.setStock(stripe.getStock() - taken);
+      remaining -= taken;
+    }
+    return true;
+  }
+
+  /**
+   * Committed available stock of any product: the stripe sum if it is striped, the unit count if
+   * it is pooled, otherwise the row value plus the stock ledger entries not written behind yet.
+   */
+  @Transactional(readOnly = true)
+  public int available(UUID productId) {
+    Product product = findProduct(productId);
+    if (product.isStriped()) {
+      return (int) stockStripeRepository.sumStock(productId);
+    }
+    if (product.isStockPooled()) {
+      return (int) stockUnitRepository.countByProductId(productId);
+    }
+    return stockLedgerRepository.findAvailableStock(productId).orElseThrow().intValue();
+  }
+
+  /**
+   * Evens out the stripes of a product, so reservations do not keep falling back to other stripes
+   * once some of them run dry.
+   */
+  @RetryOnConflict
+  @Transactional
+  public void rebalance(UUID productId) {
+    // 1. Lock all stripes in order
+    List<StockStripe> stripes = stockStripeRepository.lockAllByProductId(productId);
+
+    // 2. Leave stripes that differ by at most one unit untouched
+    int min = stripes.stream().mapToInt(StockStripe::getStock).min().orElse(0);
+    int max = stripes.stream().mapToInt(StockStripe::getStock).max().orElse(0);
+    if (max - min <= 1) {
+      return;
+    }
+
+    // 3. Redistribute the sum evenly
+    int total = total(stripes);
+    for (int i = 0; i < stripes.size(); i++) {
+      stripes.get(i).setStock(share(total, stripes.size(), i));
+    }
+  }
+
+  /** The locked product with its current stock, which the switch moves to another form. */
+  private Product lockProduct(UUID productId) {
+    return productRepository
+        .lockById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+
+  private Product findProduct(UUID productId) {
+    return productRepository
+        .findById(productId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+  }
+
+  private static int total(List<StockStripe> stripes) {
+    return stripes.stream().mapToInt(StockStripe::getStock).sum();
+  }
+
+  /** Even share of stripe {@code index}; the first stripes take the remainder. */
+  private static int share(int total, int stripes, int index) {
+    return total / stripes + (index < total % stripes ? 1 : 0);
+  }
+}
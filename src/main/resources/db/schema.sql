@@ -0,0 +1,113 @@
+-- Checked-in schema for the prod profile (ddl-auto: validate).
+-- Keep in sync with the JPA entities; ProductionProfileTest validates it on every build.
+
+CREATE TABLE IF NOT EXISTS products (
+    id            UUID           NOT NULL,
+    name          VARCHAR(255),
+    price         NUMERIC(38, 2),
+    stock         INTEGER        NOT NULL,
+    stock_stripes INTEGER        NOT NULL,
+    stock_pooled  BOOLEAN        NOT NULL,
+    version       BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS product_stock_stripes (
+    id         UUID    NOT NULL,
+    product_id UUID    NOT NULL,
+    stripe     INTEGER NOT NULL,
+    stock      INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_product_stock_stripes_product_stripe UNIQUE (product_id, stripe),
+    CONSTRAINT fk_product_stock_stripes_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE IF NOT EXISTS product_stock_units (
+    id         UUID NOT NULL,
+    product_id UUID NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_stock_units_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_stock_units_product ON product_stock_units (product_id);
+
+CREATE TABLE IF NOT EXISTS stock_ledger (
+    id         UUID                        NOT NULL,
+    product_id UUID                        NOT NULL,
+    quantity   INTEGER                     NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_ledger_created ON stock_ledger (created_at);
+
+CREATE TABLE IF NOT EXISTS shopping_carts (
+    id       UUID         NOT NULL,
+    owner_id VARCHAR(255) NOT NULL,
+    version  BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_shopping_carts_owner ON shopping_carts (owner_id);
+
+CREATE TABLE IF NOT EXISTS cart_items (
+    id             UUID                        NOT NULL,
+    cart_id        UUID                        NOT NULL,
+    product_id     UUID                        NOT NULL,
+    quantity       INTEGER                     NOT NULL,
+    unit_price     NUMERIC(38, 2),
+    reserved_until TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_cart_items_cart_product UNIQUE (cart_id, product_id),
+    CONSTRAINT fk_cart_items_cart FOREIGN KEY (cart_id) REFERENCES shopping_carts (id),
+    CONSTRAINT fk_cart_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_cart_items_reserved_until ON cart_items (reserved_until);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id         UUID                        NOT NULL,
+    owner_id   VARCHAR(255)                NOT NULL,
+    status     VARCHAR(255),
+    total      NUMERIC(38, 2),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version    BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_owner_status_created ON orders (owner_id, status, created_at);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         UUID    NOT NULL,
+    order_id   UUID    NOT NULL,
+    product_id UUID    NOT NULL,
+    quantity   INTEGER NOT NULL,
+    unit_price NUMERIC(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id         UUID                        NOT NULL,
+    type       VARCHAR(255)                NOT NULL,
+    order_id   UUID                        NOT NULL,
+    owner_id   VARCHAR(255)                NOT NULL,
+    total      NUMERIC(38, 2),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_created ON outbox_events (created_at);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    owner_id        VARCHAR(255)                NOT NULL,
+    idempotency_key VARCHAR(255)                NOT NULL,
+    operation       VARCHAR(255)                NOT NULL,
+    result_id       UUID,
+    total           NUMERIC(38, 2),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (owner_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created_at);
@@ -0,0 +1,29 @@
+package org.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Boots the prod profile against a fresh database: the checked-in schema is applied and Hibernate
+ * validates every entity against it, so schema drift fails the build.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prod_schema_check")
+@ActiveProfiles("prod")
+class ProductionProfileTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    @DisplayName("Prod profile: Should validate entities against db/schema.sql with SQL logging off")
+    void contextLoadsWithCheckedInSchema() {
+        assertThat(environment.getProperty("spring.jpa.hibernate.ddl-auto")).isEqualTo("validate");
+        assertThat(environment.getProperty("spring.jpa.show-sql")).isEqualTo("false");
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.cart.AddToCartGroupCommitter;
+import org.example.contract.AsyncOrderService;
+import org.example.contract.AsyncProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Runs without a test-managed transaction: every async call commits on its own thread. */
+@SpringBootTest(properties = {
+        "app.async.max-pending=4",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class AsyncServiceTest {
+
+    @Autowired
+    private AsyncProductService asyncProductService;
+
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private AsyncExecutor asyncExecutor;
+
+    @Autowired
+    private AsyncMetrics metrics;
+
+    @Autowired
+    private AddToCartGroupCommitter groupCommitter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = new Product();
+        testProduct.setName("Async Keyboard");
+        testProduct.setPrice(Money.of("75.00"));
+        testProduct.setStock(10);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should pipeline cart operations and checkout without blocking")
+    void asyncCalls_shouldPipelineCartOperationsAndCheckout() throws Exception {
+        // When
+        BigDecimal total = asyncProductService
+                .addToCart("async-shopper", testProduct.getId())
+                .thenCompose(product -> asyncProductService.addToCart("async-shopper", product.getId()))
+                .thenCompose(product -> asyncOrderService.checkout("async-shopper"))
+                .get();
+
+        // Then
+        assertThat(total).isEqualByComparingTo(new BigDecimal("150.00"));
+        assertThat(asyncProductService.availableStock(testProduct.getId()).get()).isEqualTo(8);
+        assertThat(asyncProductService.findProduct(testProduct.getId()).get().getName())
+                .isEqualTo("Async Keyboard");
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should not start group commit workers while group commit is disabled")
+    void groupCommitter_shouldNotStartWhenDisabled() {
+        // When & Then - group commit is off by default
+        assertThat(groupCommitter.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should fail the future with the service exception")
+    void asyncCalls_shouldFailFutureWithServiceException() {
+        // When / Then
+        assertThatThrownBy(() -> asyncOrderService.checkout("shopper-without-cart").get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Back-pressure: Should reject calls once max-pending calls are queued or running")
+    void asyncExecutor_shouldRejectWhenSaturated() throws Exception {
+        // Given - four calls blocked on a latch fill all slots
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> blocked = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            blocked.add(asyncExecutor.submit(() -> await(release)));
+        }
+        long rejected = metrics.getRejected();
+
+        // When
+        CompletableFuture<Product> refused = asyncProductService.addToCart("async-shopper", testProduct.getId());
+
+        // Then
+        try {
+            assertThat(refused).isCompletedExceptionally();
+            assertThatThrownBy(refused::get).hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(metrics.getRejected()).isEqualTo(rejected + 1);
+        } finally {
+            release.countDown();
+        }
+        CompletableFuture.allOf(blocked.toArray(CompletableFuture[]::new)).get();
+        assertThat(asyncProductService.addToCart("async-shopper", testProduct.getId()).get().getStock())
+                .isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Coalescing: Should share one load between concurrent reads of the same key")
+    void readCoalescer_shouldShareInFlightLoad() throws Exception {
+        // Given
+        ReadCoalescer<String, Integer> coalescer = new ReadCoalescer<>(metrics);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Integer> pendingLoad = new CompletableFuture<>();
+        long coalesced = metrics.getCoalesced();
+
+        // When - three reads while the first load is in flight, one after it completed
+        CompletableFuture<Integer> first = coalescer.read("stock", key -> {
+            loads.incrementAndGet();
+            return pendingLoad;
+        });
+        CompletableFuture<Integer> second = coalescer.read("stock", key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(-1);
+        });
+        CompletableFuture<Integer> third = coalescer.read("stock", key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(-1);
+        });
+        second.cancel(false);
+        pendingLoad.complete(7);
+        CompletableFuture<Integer> later = coalescer.read("stock", key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(6);
+        });
+
+        // Then - cancelling one copy leaves the others untouched
+        assertThat(first.get()).isEqualTo(7);
+        assertThat(third.get()).isEqualTo(7);
+        assertThat(later.get()).isEqualTo(6);
+        assertThat(loads).hasValue(2);
+        assertThat(metrics.getCoalesced()).isEqualTo(coalesced + 2);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
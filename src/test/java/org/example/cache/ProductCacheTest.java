@@ -0,0 +1,132 @@
+package org.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.stock.StripedStockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs without a test-managed transaction: the second-level cache is shared between transactions,
+ * so every read has to run in a transaction of its own to reach it.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private StripedStockService stripedStockService;
+
+    @Autowired
+    private StockStripeRepository stockStripeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = new Product();
+        testProduct.setName("Cached Headphones");
+        testProduct.setPrice(Money.of("199.00"));
+        testProduct.setStock(10);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        stockStripeRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cache: Should serve repeated catalog reads without going to the database")
+    void findById_shouldHitCacheOnRepeatedReads() {
+        // Given
+        productRepository.findById(testProduct.getId());
+        long hits = productCache.getHits();
+        long misses = productCache.getMisses();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            productRepository.findById(testProduct.getId());
+        }
+
+        // Then
+        assertThat(productCache.getHits()).isEqualTo(hits + 5);
+        assertThat(productCache.getMisses()).isEqualTo(misses);
+    }
+
+    @Test
+    @DisplayName("Cache: Should read the product for addToCart from the cache")
+    void addToCart_shouldReadProductFromCache() {
+        // Given
+        productRepository.findById(testProduct.getId());
+        long hits = productCache.getHits();
+
+        // When
+        productService.addToCart("cache-shopper", testProduct.getId());
+
+        // Then
+        assertThat(productCache.getHits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @DisplayName("Cache: Should evict a product when its stock changes, so the next read is fresh")
+    void addToCart_shouldInvalidateChangedProduct() {
+        // Given
+        productRepository.findById(testProduct.getId());
+        long invalidations = productCache.getInvalidations();
+        long misses = productCache.getMisses();
+
+        // When
+        productService.addToCart("cache-shopper", testProduct.getId());
+
+        // Then
+        assertThat(productCache.getInvalidations()).isEqualTo(invalidations + 1);
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(9);
+        assertThat(productCache.getMisses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    @DisplayName("Cache: Should split the stock read from the row, not a stale cached value")
+    void enableStriping_shouldIgnoreStaleCachedStock() {
+        // Given - a cached product whose stock changed without an eviction, as a load racing with
+        //         a reservation leaves it when it re-caches the old row after the eviction
+        productRepository.findById(testProduct.getId());
+        jdbcTemplate.update(
+                "UPDATE products SET stock = stock - 3, version = version + 1 WHERE id = ?",
+                testProduct.getId());
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(10);
+
+        // When
+        stripedStockService.enableStriping(testProduct.getId(), 2);
+
+        // Then
+        assertThat(stripedStockService.available(testProduct.getId())).isEqualTo(7);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.example.contract.AsyncProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Runs without a test-managed transaction: every batch commits on a group-commit worker. */
+@SpringBootTest(properties = {
+        "app.cart.group-commit.enabled=true",
+        "app.cart.group-commit.window=50ms",
+        "app.cart.group-commit.max-batch-size=64",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class GroupCommitTest {
+
+    @Autowired
+    private AsyncProductService asyncProductService;
+
+    @Autowired
+    private GroupCommitMetrics metrics;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = new Product();
+        testProduct.setName("Limited Vinyl");
+        testProduct.setPrice(Money.of("35.00"));
+        testProduct.setStock(15);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should commit concurrent requests together and fail only the sold-out ones")
+    void addToCart_shouldShareCommitAndReportOutOfStockPerRequest() {
+        // Given
+        long batches = metrics.getBatches();
+        long requests = metrics.getRequests();
+
+        // When - 20 shoppers ask for 15 units at once
+        List<CompletableFuture<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(asyncProductService.addToCart("group-shopper-" + i, testProduct.getId()));
+        }
+        int added = 0;
+        int soldOut = 0;
+        for (CompletableFuture<Product> call : calls) {
+            try {
+                call.join();
+                added++;
+            } catch (CompletionException e) {
+                assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+                soldOut++;
+            }
+        }
+
+        // Then - every request went through a shared transaction, far fewer than one each
+        assertThat(added).isEqualTo(15);
+        assertThat(soldOut).isEqualTo(5);
+        assertThat(metrics.getRequests() - requests).isEqualTo(20);
+        assertThat(metrics.getBatches() - batches).isLessThan(20);
+        assertThat(metrics.getFallbacks()).isZero();
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isZero();
+        assertThat(cartRepository.count()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Should complete the future only after the shared commit")
+    void addToCart_shouldCompleteAfterCommit() {
+        // When
+        Product product = asyncProductService.addToCart("committed-shopper", testProduct.getId()).join();
+
+        // Then - visible to a separate transaction as soon as the future completed
+        assertThat(product.getStock()).isEqualTo(14);
+        assertThat(cartRepository.findWithItemsByOwnerId("committed-shopper").orElseThrow().getItems())
+                .hasSize(1);
+    }
+}
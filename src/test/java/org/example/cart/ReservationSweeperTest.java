@@ -0,0 +1,140 @@
+package org.example.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.example.contract.ProductService;
+import org.example.entity.CartItem;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartItemRepository;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.stock.StripedStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = {
+        "app.cart.reservation.ttl=10m",
+        "app.cart.sweep.interval=PT1H"
+})
+@Transactional
+class ReservationSweeperTest {
+
+    @Autowired
+    private ReservationSweeper reservationSweeper;
+
+    @Autowired
+    private ReservationSweepMetrics metrics;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StripedStockService stripedStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockStripeRepository stockStripeRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository.deleteAll();
+        stockStripeRepository.deleteAll();
+        productRepository.deleteAll();
+
+        testProduct = new Product();
+        testProduct.setName("Limited Sneakers");
+        testProduct.setPrice(Money.of("180.00"));
+        testProduct.setStock(10);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should reserve a cart line until now plus the TTL")
+    void addToCart_shouldSetReservationExpiry() {
+        // When
+        productService.addToCart("sweeper-shopper", testProduct.getId());
+
+        // Then
+        assertThat(cartLine("sweeper-shopper").getReservedUntil())
+                .isCloseTo(Instant.now().plus(Duration.ofMinutes(10)), within(1, ChronoUnit.MINUTES));
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should give the stock of an expired cart line back and remove the line")
+    void sweep_shouldReleaseExpiredLines() {
+        // Given - two units held by a line that expired a minute ago
+        productService.addToCart("sweeper-shopper", testProduct.getId());
+        productService.addToCart("sweeper-shopper", testProduct.getId());
+        expire(cartLine("sweeper-shopper"));
+        long sweepsBefore = metrics.getSweeps();
+
+        // When
+        int released = reservationSweeper.sweep();
+
+        // Then
+        assertThat(released).isEqualTo(1);
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(10);
+        assertThat(cartRepository.findWithItemsByOwnerId("sweeper-shopper").orElseThrow().getItems()).isEmpty();
+        assertThat(metrics.getSweeps()).isEqualTo(sweepsBefore + 1);
+        assertThat(metrics.getLastReleased()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should leave cart lines that have not expired yet")
+    void sweep_shouldKeepLiveLines() {
+        // Given
+        productService.addToCart("sweeper-shopper", testProduct.getId());
+
+        // When
+        int released = reservationSweeper.sweep();
+
+        // Then
+        assertThat(released).isZero();
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(9);
+        assertThat(cartLine("sweeper-shopper").getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should give the stock of an expired line back to a striped product")
+    void sweep_shouldRestockStripes() {
+        // Given
+        stripedStockService.enableStriping(testProduct.getId(), 4);
+        productService.addToCart("sweeper-shopper", testProduct.getId());
+        expire(cartLine("sweeper-shopper"));
+
+        // When
+        reservationSweeper.sweep();
+
+        // Then
+        assertThat(stripedStockService.available(testProduct.getId())).isEqualTo(10);
+    }
+
+    private CartItem cartLine(String ownerId) {
+        return cartRepository.findWithItemsByOwnerId(ownerId).orElseThrow().getItems().get(0);
+    }
+
+    private void expire(CartItem line) {
+        line.setReservedUntil(Instant.now().minus(Duration.ofMinutes(1)));
+        cartItemRepository.save(line);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/** Runs without a test-managed transaction: every caller has to take a gate slot of its own. */
+@SpringBootTest(properties = {
+        "app.execution.threads=virtual",
+        "app.execution.gate.max-concurrent=4",
+        "app.execution.gate.acquire-timeout=30s",
+        "app.execution.pinning.threshold=10ms",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class VirtualThreadExecutionTest {
+
+    @Autowired
+    private ExecutorService shopExecutor;
+
+    @Autowired
+    private TransactionGate transactionGate;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrency: Should serve 1000 virtual-thread callers through a 4-slot gate")
+    void addToCart_shouldRunThousandCallersWithinGateLimit() throws Exception {
+        // Given
+        List<UUID> productIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setName("Gated product " + i);
+            product.setPrice(Money.of("5.00"));
+            product.setStock(100);
+            productIds.add(productRepository.save(product).getId());
+        }
+        long admitted = transactionGate.getAdmitted();
+
+        // When
+        List<Future<Product>> calls = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String ownerId = "virtual-caller-" + i;
+            UUID productId = productIds.get(i % productIds.size());
+            calls.add(shopExecutor.submit(() -> productService.addToCart(ownerId, productId)));
+        }
+        for (Future<Product> call : calls) {
+            call.get();
+        }
+
+        // Then - every caller got through, never more than 4 at a time
+        assertThat(transactionGate.getAdmitted() - admitted).isGreaterThanOrEqualTo(1000);
+        assertThat(transactionGate.getMaxActive()).isLessThanOrEqualTo(4);
+        assertThat(transactionGate.getRejected()).isZero();
+        for (UUID productId : productIds) {
+            assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a caller that waits longer than the acquire timeout")
+    void gate_shouldRejectAfterAcquireTimeout() throws Exception {
+        // Given - a one-slot gate held by another thread
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.getGate().setMaxConcurrent(1);
+        properties.getGate().setAcquireTimeout(Duration.ofMillis(50));
+        TransactionGate gate = new TransactionGate(properties);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable holder = gated(gate, () -> {
+            entered.countDown();
+            await(release);
+        });
+        Thread holderThread = Thread.ofVirtual().start(holder);
+        entered.await();
+
+        // When / Then
+        try {
+            assertThatThrownBy(() -> gated(gate, () -> {}).run())
+                    .isInstanceOf(TransientDataAccessResourceException.class);
+            assertThat(gate.getRejected()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            holderThread.join();
+        }
+        gated(gate, () -> {}).run();
+        assertThat(gate.getAdmitted()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report a virtual thread blocking inside synchronized")
+    void pinningMonitor_shouldReportSynchronizedBlocking() throws Exception {
+        // Given
+        Object monitor = new Object();
+        long pinned = pinningMonitor.getPinned();
+
+        // When - sleeping while holding a monitor keeps the virtual thread on its carrier
+        Thread.ofVirtual()
+                .start(() -> {
+                    synchronized (monitor) {
+                        sleep(Duration.ofMillis(100));
+                    }
+                })
+                .join();
+
+        // Then - JFR streams events in chunks, so wait for it to arrive
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinningMonitor.getPinned() == pinned && System.nanoTime() < deadline) {
+            sleep(Duration.ofMillis(50));
+        }
+        assertThat(pinningMonitor.getPinned()).isGreaterThan(pinned);
+        assertThat(pinningMonitor.getPinnedSites().keySet())
+                .anyMatch(site -> site.startsWith(VirtualThreadExecutionTest.class.getName()));
+    }
+
+    private static Runnable gated(TransactionGate gate, Runnable target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Runnable.class);
+        proxyFactory.addAdvice(gate);
+        return (Runnable) proxyFactory.getProxy();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.example.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.CartItem;
+import org.example.entity.OrderStatus;
+import org.example.entity.Product;
+import org.example.execution.TransactionGate;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.IdempotencyRecordRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs without a test-managed transaction: keys are written by the service transactions and kept
+ * in memory only once those commit. Every test uses fresh keys, since the memory outlives a test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency_db",
+        "app.stock.rebalance.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class IdempotencyKeysTest {
+
+    private static final String OWNER = "retrying-client";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyKeys idempotencyKeys;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private IdempotencyKeyPurger idempotencyKeyPurger;
+
+    @Autowired
+    private TransactionGate transactionGate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setName("Espresso Machine");
+        product.setPrice(Money.of("250.00"));
+        product.setStock(10);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should reserve stock once for a repeated addToCart key")
+    void addToCart_shouldApplyKeyOnce() {
+        // Given
+        String key = newKey();
+
+        // When
+        productService.addToCart(OWNER, product.getId(), key);
+        Product replayed = productService.addToCart(OWNER, product.getId(), key);
+
+        // Then
+        assertThat(replayed.getId()).isEqualTo(product.getId());
+        assertThat(stock()).isEqualTo(9);
+        assertThat(cartQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should place one order and return its total for a repeated checkout key")
+    void checkout_shouldApplyKeyOnce() {
+        // Given
+        productService.addToCart(OWNER, product.getId());
+        String key = newKey();
+
+        // When
+        BigDecimal total = orderService.checkout(OWNER, key);
+        BigDecimal replayed = orderService.checkout(OWNER, key);
+
+        // Then - the replay returns the same total although the cart is empty by now
+        assertThat(replayed).isEqualByComparingTo(total).isEqualByComparingTo("250.00");
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should not cancel the next open order for a repeated cancel key")
+    void cancel_shouldApplyKeyOnce() {
+        // Given - two open orders
+        productService.addToCart(OWNER, product.getId());
+        orderService.checkout(OWNER);
+        productService.addToCart(OWNER, product.getId());
+        orderService.checkout(OWNER);
+        String key = newKey();
+
+        // When
+        orderService.cancel(OWNER, key);
+        orderService.cancel(OWNER, key);
+
+        // Then
+        List<OrderStatus> statuses = new ArrayList<>();
+        orderRepository.findAll().forEach(order -> statuses.add(order.getStatus()));
+        assertThat(statuses).containsExactlyInAnyOrder(OrderStatus.OPEN, OrderStatus.CLOSED);
+        assertThat(stock()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should answer a retry from memory, without a service transaction")
+    void addToCart_shouldReplayFromMemory() {
+        // Given
+        String key = newKey();
+        productService.addToCart(OWNER, product.getId(), key);
+        long cacheHits = idempotencyKeys.getCacheHits();
+        long admitted = transactionGate.getAdmitted();
+
+        // When
+        productService.addToCart(OWNER, product.getId(), key);
+
+        // Then
+        assertThat(idempotencyKeys.getCacheHits()).isEqualTo(cacheHits + 1);
+        assertThat(transactionGate.getAdmitted()).isEqualTo(admitted);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should purge keys older than the retention")
+    void purge_shouldDeleteExpiredKeys() {
+        // Given
+        productService.addToCart(OWNER, product.getId(), newKey());
+        Duration retention = idempotencyProperties.getRetention();
+        // a negative retention puts the cutoff after the key's creation time
+        idempotencyProperties.setRetention(Duration.ofMinutes(-1));
+
+        try {
+            // When
+            int purged = idempotencyKeyPurger.purge();
+
+            // Then
+            assertThat(purged).isEqualTo(1);
+            assertThat(idempotencyRecordRepository.count()).isZero();
+        } finally {
+            idempotencyProperties.setRetention(retention);
+        }
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should apply an expired key again, whether cached or not purged yet")
+    void addToCart_shouldNotReplayExpiredKey() {
+        // Given - a negative retention expires every key as soon as it is created
+        String key = newKey();
+        Duration retention = idempotencyProperties.getRetention();
+        idempotencyProperties.setRetention(Duration.ofMinutes(-1));
+
+        try {
+            // When
+            productService.addToCart(OWNER, product.getId(), key);
+            productService.addToCart(OWNER, product.getId(), key);
+
+            // Then - the expired record was replaced instead of replayed
+            assertThat(stock()).isEqualTo(8);
+            assertThat(cartQuantity()).isEqualTo(2);
+            assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+        } finally {
+            idempotencyProperties.setRetention(retention);
+        }
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should leave the key unused when the call fails")
+    void checkout_shouldAllowKeyAfterFailure() {
+        // Given - the first attempt fails on an empty cart
+        productService.addToCart(OWNER, product.getId());
+        orderService.checkout(OWNER);
+        String key = newKey();
+        assertThatThrownBy(() -> orderService.checkout(OWNER, key))
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        productService.addToCart(OWNER, product.getId());
+        BigDecimal total = orderService.checkout(OWNER, key);
+
+        // Then
+        assertThat(total).isEqualByComparingTo("250.00");
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should reject a key reused for another request")
+    void find_shouldRejectReusedKey() {
+        // Given
+        String key = newKey();
+        productService.addToCart(OWNER, product.getId(), key);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.checkout(OWNER, key))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should apply the same key of another owner as a request of its own")
+    void addToCart_shouldScopeKeyToOwner() {
+        // Given
+        String key = newKey();
+        productService.addToCart(OWNER, product.getId(), key);
+
+        // When
+        productService.addToCart("another-owner", product.getId(), key);
+        productService.addToCart("another-owner", product.getId(), key);
+
+        // Then - one reservation per owner
+        assertThat(stock()).isEqualTo(8);
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Concurrency: Should reserve stock once for a key sent by concurrent retries")
+    void addToCart_shouldApplyConcurrentKeyOnce() throws Exception {
+        // Given - the owner's cart exists, so the retries only race for the key
+        productService.addToCart(OWNER, product.getId());
+        String key = newKey();
+        int retries = 8;
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(retries);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Product>> calls = new ArrayList<>();
+            for (int i = 0; i < retries; i++) {
+                Callable<Product> call = () -> {
+                    start.await();
+                    return productService.addToCart(OWNER, product.getId(), key);
+                };
+                calls.add(executor.submit(call));
+            }
+            start.countDown();
+            for (Future<Product> call : calls) {
+                assertThat(call.get().getId()).isEqualTo(product.getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(stock()).isEqualTo(8);
+        assertThat(cartQuantity()).isEqualTo(2);
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    private int stock() {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+
+    private int cartQuantity() {
+        return cartRepository.findWithItemsByOwnerId(OWNER).orElseThrow().getItems().stream()
+                .mapToInt(CartItem::getQuantity)
+                .sum();
+    }
+}
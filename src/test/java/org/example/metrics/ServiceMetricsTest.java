@@ -0,0 +1,151 @@
+package org.example.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs without a test-managed transaction: service calls are only measured when they own their
+ * transaction.
+ */
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.stock.rebalance.enabled=false"
+})
+class ServiceMetricsTest {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = new Product();
+        testProduct.setName("Burr Grinder");
+        testProduct.setPrice(Money.of("189.00"));
+        testProduct.setStock(1);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should time a committed transaction and count its statements and rows")
+    void addToCart_shouldRecordCommittedTransaction() {
+        // Given
+        long committed = transactions("ProductServiceImpl", "addToCart", "committed");
+        long jdbcStatements = JdbcActivity.getTotalStatements();
+
+        // When
+        productService.addToCart("metrics-shopper", testProduct.getId());
+
+        // Then
+        assertThat(transactions("ProductServiceImpl", "addToCart", "committed"))
+                .isEqualTo(committed + 1);
+        assertThat(registry.get("shop.service.transactions.statements")
+                .tags("class", "ProductServiceImpl", "method", "addToCart")
+                .summary()
+                .max()).isPositive();
+        assertThat(registry.get("shop.service.transactions.rows")
+                .tags("class", "ProductServiceImpl", "method", "addToCart")
+                .summary()
+                .max()).isPositive();
+        assertThat(registry.get("shop.service.transactions.jdbc")
+                .tags("class", "ProductServiceImpl", "method", "addToCart")
+                .timer()
+                .count()).isPositive();
+        assertThat(registry.get("shop.jdbc.statements").functionCounter().count())
+                .isGreaterThan(jdbcStatements);
+    }
+
+    @Test
+    @DisplayName("Should count a rollback under the type of the exception that caused it")
+    void checkout_shouldCountRollbackByExceptionType() {
+        // Given
+        double rollbacks = rollbacks("OrderServiceImpl", "checkout", "IllegalStateException");
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.checkout("metrics-empty-cart"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(rollbacks("OrderServiceImpl", "checkout", "IllegalStateException"))
+                .isEqualTo(rollbacks + 1);
+        assertThat(transactions("OrderServiceImpl", "checkout", "rolled_back"))
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Should not record a separate transaction for a call that joins an outer one")
+    void addToCart_shouldNotRecordJoinedCall() {
+        // Given
+        long committed = transactions("ProductServiceImpl", "addToCart", "committed");
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                productService.addToCart("metrics-shopper", testProduct.getId()));
+
+        // Then
+        assertThat(transactions("ProductServiceImpl", "addToCart", "committed"))
+                .isEqualTo(committed);
+    }
+
+    private long transactions(String className, String method, String outcome) {
+        Timer timer = registry.find("shop.service.transactions")
+                .tags("class", className, "method", method, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rollbacks(String className, String method, String exception) {
+        Counter counter = registry.find("shop.service.rollbacks")
+                .tags("class", className, "method", method, "exception", exception)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
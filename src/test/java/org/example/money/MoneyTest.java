@@ -0,0 +1,80 @@
+package org.example.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.example.entity.CartItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Happy Path: Should match the BigDecimal total of random carts exactly")
+    void total_shouldMatchBigDecimalTotal() {
+        Random random = new Random(42);
+        for (int cartNumber = 0; cartNumber < 1_000; cartNumber++) {
+            // Given - a cart with up to 200 lines priced up to 99 999.99
+            List<CartItem> items = new ArrayList<>();
+            BigDecimal expected = BigDecimal.ZERO;
+            int lineCount = 1 + random.nextInt(200);
+            for (int i = 0; i < lineCount; i++) {
+                BigDecimal unitPrice = BigDecimal.valueOf(random.nextInt(10_000_000), Money.SCALE);
+                int quantity = 1 + random.nextInt(1_000);
+                items.add(line(Money.of(unitPrice), quantity));
+                expected = expected.add(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            }
+
+            // When
+            Money total = Money.total(items, CartItem::getUnitPrice, CartItem::getQuantity);
+
+            // Then
+            assertThat(total.toBigDecimal()).isEqualTo(expected.setScale(Money.SCALE));
+        }
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should round-trip BigDecimal amounts without losing scale")
+    void of_shouldRoundTripBigDecimal() {
+        assertThat(Money.of("25.50").minorUnits()).isEqualTo(2550);
+        assertThat(Money.of("7").toBigDecimal()).isEqualTo(new BigDecimal("7.00"));
+        assertThat(Money.of("-0.01").plus(Money.of("0.01"))).isEqualTo(Money.ZERO);
+        assertThat(Money.of("25.50").times(3)).isEqualTo(Money.of("76.50"));
+        assertThat(Money.of("1225.50")).hasToString("1225.50");
+    }
+
+    @Test
+    @DisplayName("Should reject amounts with more decimals than the scale")
+    void of_shouldRejectExtraDecimals() {
+        assertThatThrownBy(() -> Money.of("0.005")).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("Should fail instead of overflowing the minor units")
+    void total_shouldDetectOverflow() {
+        Money maxPrice = new Money(Long.MAX_VALUE / 2);
+
+        assertThatThrownBy(() -> maxPrice.times(3)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> maxPrice.plus(maxPrice).plus(new Money(2)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(
+                        () -> Money.total(
+                                List.of(line(maxPrice, 1), line(maxPrice, 1), line(new Money(2), 1)),
+                                CartItem::getUnitPrice,
+                                CartItem::getQuantity))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static CartItem line(Money unitPrice, int quantity) {
+        CartItem item = new CartItem();
+        item.setUnitPrice(unitPrice);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,234 @@
+package org.example.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Order;
+import org.example.entity.OrderEventType;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs without a test-managed transaction: the relay only sees events whose order change
+ * committed. Uses its own database, so the relays of other cached contexts cannot take its events.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_relay_db",
+        "app.outbox.batch-size=10",
+        "app.outbox.relay.interval=PT1H",
+        "app.cart.sweep.enabled=false"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxMetrics metrics;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @SpyBean
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProduct = new Product();
+        testProduct.setName("Espresso Machine");
+        testProduct.setPrice(Money.of("349.90"));
+        testProduct.setStock(10);
+        testProduct = productRepository.save(testProduct);
+        sink.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should publish checkout and cancel events once committed")
+    void relay_shouldPublishOrderLifecycleEvents() {
+        // Given
+        productService.addToCart("outbox-shopper", testProduct.getId());
+        orderService.checkout("outbox-shopper");
+        orderService.cancel("outbox-shopper");
+        UUID orderId = orderRepository.findAll().iterator().next().getId();
+
+        // When
+        int published = outboxRelay.relay();
+
+        // Then
+        assertThat(published).isEqualTo(2);
+        assertThat(sink.getMessages())
+                .extracting(OutboxMessage::type, OutboxMessage::orderId, OutboxMessage::total)
+                .containsExactlyInAnyOrder(
+                        tuple(OrderEventType.CHECKED_OUT, orderId, Money.of("349.90")),
+                        tuple(OrderEventType.CANCELLED, orderId, Money.of("349.90")));
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not record an event for a rolled back checkout")
+    void checkout_shouldNotRecordEventWhenRolledBack() {
+        // Given
+        productService.addToCart("outbox-shopper", testProduct.getId());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.checkout("outbox-shopper");
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(sink.getMessages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the events when the sink fails and publish them on the next run")
+    void relay_shouldRedeliverAfterSinkFailure() {
+        // Given
+        productService.addToCart("outbox-shopper", testProduct.getId());
+        orderService.checkout("outbox-shopper");
+        long failures = metrics.getFailures();
+        doThrow(new IllegalStateException("Broker unavailable"))
+                .doCallRealMethod()
+                .when(sink)
+                .publish(anyList());
+
+        // When
+        int firstRun = outboxRelay.relay();
+        int secondRun = outboxRelay.relay();
+
+        // Then
+        assertThat(firstRun).isZero();
+        assertThat(metrics.getFailures()).isEqualTo(failures + 1);
+        assertThat(secondRun).isEqualTo(1);
+        assertThat(sink.getMessages())
+                .extracting(OutboxMessage::type)
+                .containsExactly(OrderEventType.CHECKED_OUT);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Concurrency: Should deliver every event at least once with relays running in parallel")
+    void relay_shouldDeliverEveryEventWithConcurrentRelays() throws Exception {
+        // Given - 200 events, 20 batches of 10
+        List<UUID> orderIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 200; i++) {
+                Order order = new Order();
+                order.setId(UUID.randomUUID());
+                order.setOwnerId("bulk-owner");
+                order.setTotal(Money.of("1.00"));
+                orderEventOutbox.append(order, OrderEventType.CHECKED_OUT);
+                orderIds.add(order.getId());
+            }
+        });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> runs = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                runs.add(executor.submit(outboxRelay::relay));
+            }
+            for (Future<Integer> run : runs) {
+                run.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        outboxRelay.relay(); // picks up whatever a failed concurrent batch left behind
+
+        // Then
+        assertThat(sink.getMessages())
+                .extracting(OutboxMessage::orderId)
+                .containsAll(orderIds);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("File sink: Should append one JSON object per message")
+    void fileSink_shouldAppendJsonLines(@TempDir Path directory) throws Exception {
+        // Given
+        FileOutboxSink fileSink = new FileOutboxSink(directory.resolve("events.jsonl"));
+        UUID orderId = UUID.randomUUID();
+        OutboxMessage message = new OutboxMessage(
+                UUID.randomUUID(),
+                OrderEventType.CHECKED_OUT,
+                orderId,
+                "owner \"quoted\"",
+                Money.of("12.50"),
+                Instant.parse("2026-01-01T00:00:00Z"));
+
+        // When
+        fileSink.publish(List.of(message));
+        fileSink.publish(List.of(message));
+
+        // Then
+        List<String> lines = Files.readAllLines(fileSink.getFile());
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .contains("\"type\":\"CHECKED_OUT\"")
+                .contains("\"orderId\":\"" + orderId + "\"")
+                .contains("\"ownerId\":\"owner \\\"quoted\\\"\"")
+                .contains("\"total\":12.50")
+                .contains("\"occurredAt\":\"2026-01-01T00:00:00Z\"");
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+        "app.retry.max-attempts=3",
+        "app.retry.initial-backoff=1ms",
+        "app.retry.max-backoff=2ms"
+})
+class ConflictRetryTest {
+
+    @Autowired
+    private FlakyWriter flakyWriter;
+
+    @Autowired
+    private RetryMetrics retryMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        flakyWriter.reset();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should retry conflicts in a fresh transaction and succeed")
+    void shouldRetryConflictsAndSucceed() {
+        // Given
+        flakyWriter.failNextCalls(2);
+        long conflictsBefore = retryMetrics.getConflicts();
+        long retriesBefore = retryMetrics.getRetries();
+
+        // When
+        int calls = flakyWriter.write();
+
+        // Then
+        assertThat(calls).isEqualTo(3);
+        assertThat(flakyWriter.transactionalCalls()).isEqualTo(3);
+        assertThat(retryMetrics.getConflicts() - conflictsBefore).isEqualTo(2);
+        assertThat(retryMetrics.getRetries() - retriesBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Sad Path: Should give up after max attempts")
+    void shouldGiveUpAfterMaxAttempts() {
+        // Given
+        flakyWriter.failNextCalls(10);
+        long exhaustedBefore = retryMetrics.getExhausted();
+
+        // When & Then
+        assertThatThrownBy(() -> flakyWriter.write())
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(flakyWriter.calls()).isEqualTo(3);
+        assertThat(retryMetrics.getExhausted() - exhaustedBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sad Path: Should not retry inside a caller-owned transaction")
+    void shouldNotRetryInsideOuterTransaction() {
+        // Given
+        flakyWriter.failNextCalls(1);
+
+        // When & Then
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> flakyWriter.write()))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(flakyWriter.calls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Backoff: Should grow exponentially, stay capped and apply jitter")
+    void backoffShouldBeCappedAndJittered() {
+        // Given
+        RetryProperties properties = new RetryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+        properties.setMultiplier(2.0);
+        properties.setJitter(0.5);
+        ConflictRetryInterceptor interceptor = new ConflictRetryInterceptor(properties, new RetryMetrics());
+
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(interceptor.backoffMillis(1)).isBetween(5L, 10L);
+            assertThat(interceptor.backoffMillis(2)).isBetween(10L, 20L);
+            assertThat(interceptor.backoffMillis(10)).isBetween(25L, 50L);
+        }
+
+        properties.setJitter(0.0);
+        assertThat(interceptor.backoffMillis(3)).isEqualTo(40L);
+    }
+
+    @TestConfiguration
+    static class FlakyWriterConfig {
+
+        @Bean
+        FlakyWriter flakyWriter() {
+            return new FlakyWriter();
+        }
+    }
+
+    static class FlakyWriter {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger transactionalCalls = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @RetryOnConflict
+        @Transactional
+        public int write() {
+            int call = calls.incrementAndGet();
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                transactionalCalls.incrementAndGet();
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new OptimisticLockingFailureException("Simulated version conflict");
+            }
+            return call;
+        }
+
+        public void failNextCalls(int failures) {
+            failuresLeft.set(failures);
+        }
+
+        public void reset() {
+            calls.set(0);
+            transactionalCalls.set(0);
+            failuresLeft.set(0);
+        }
+
+        public int calls() {
+            return calls.get();
+        }
+
+        public int transactionalCalls() {
+            return transactionalCalls.get();
+        }
+    }
+}
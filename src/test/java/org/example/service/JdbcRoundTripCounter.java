@@ -0,0 +1,30 @@
+package org.example.service;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts JDBC round trips of the current thread: every non-batched statement execution and every
+ * executed batch. Registered through {@code hibernate.session.events.auto}.
+ */
+public class JdbcRoundTripCounter extends BaseSessionEventListener {
+
+    private static final ThreadLocal<long[]> ROUND_TRIPS = ThreadLocal.withInitial(() -> new long[1]);
+
+    static void reset() {
+        ROUND_TRIPS.get()[0] = 0;
+    }
+
+    static long roundTrips() {
+        return ROUND_TRIPS.get()[0];
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ROUND_TRIPS.get()[0]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ROUND_TRIPS.get()[0]++;
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.contract.OrderService;
+import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.Order;
+import org.example.entity.OrderItem;
+import org.example.entity.OrderStatus;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.ProductRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Counts the JDBC statements and round trips per service call, to catch N+1 regressions. */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.auto=org.example.service.JdbcRoundTripCounter",
+        "app.stock.rebalance.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+@Transactional
+class OrderServiceImplStatementCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Cancel: Should restore stock with a constant number of statements")
+    void cancel_shouldUseConstantStatementCountRegardlessOfOrderSize() {
+        // Given
+        List<Product> smallOrderProducts = saveProducts(1);
+        List<Product> largeOrderProducts = saveProducts(20);
+        saveOpenOrder("small-order-owner", smallOrderProducts);
+        saveOpenOrder("large-order-owner", largeOrderProducts);
+
+        // When
+        long smallOrderStatements = countStatements(() -> orderService.cancel("small-order-owner"));
+        long largeOrderStatements = countStatements(() -> orderService.cancel("large-order-owner"));
+
+        // Then
+        assertThat(largeOrderStatements).isEqualTo(smallOrderStatements);
+        assertThat(largeOrderStatements).isLessThanOrEqualTo(5); // including the outbox event insert
+        for (Product product : largeOrderProducts) {
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(12);
+        }
+    }
+
+    @Test
+    @DisplayName("Checkout: Should write a 100-line cart with a handful of batched round trips")
+    void checkout_shouldBatchOrderLinesAndCartClearing() {
+        // Given
+        saveCart("small-cart-owner", saveProducts(10));
+        saveCart("large-cart-owner", saveProducts(100));
+
+        // When
+        long smallCartRoundTrips = countRoundTrips(() -> orderService.checkout("small-cart-owner"));
+        long largeCartRoundTrips = countRoundTrips(() -> orderService.checkout("large-cart-owner"));
+
+        // Then - the cart query, the order and outbox inserts, then line inserts and deletes in batches of 50
+        assertThat(largeCartRoundTrips).isLessThanOrEqualTo(8);
+        assertThat(largeCartRoundTrips - smallCartRoundTrips).isLessThanOrEqualTo(2);
+        assertThat(cartRepository.findWithItemsByOwnerId("large-cart-owner").orElseThrow().getItems())
+                .isEmpty();
+    }
+
+    private long countRoundTrips(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        JdbcRoundTripCounter.reset();
+
+        action.run();
+        entityManager.flush();
+
+        return JdbcRoundTripCounter.roundTrips();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        action.run();
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Product> saveProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(Money.of("10.00"));
+            product.setStock(10);
+            products.add(productRepository.save(product));
+        }
+        return products;
+    }
+
+    private void saveCart(String ownerId, List<Product> products) {
+        Cart cart = new Cart();
+        cart.setOwnerId(ownerId);
+        for (Product product : products) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(product.getPrice());
+            cart.getItems().add(item);
+        }
+        cartRepository.save(cart);
+    }
+
+    private void saveOpenOrder(String ownerId, List<Product> products) {
+        Order order = new Order();
+        order.setOwnerId(ownerId);
+        order.setStatus(OrderStatus.OPEN);
+        for (Product product : products) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setUnitPrice(product.getPrice());
+            order.getItems().add(item);
+        }
+        orderRepository.save(order);
+    }
+}
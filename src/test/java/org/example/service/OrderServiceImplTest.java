@@ -4,12 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
+import java.util.UUID;
 import org.example.contract.OrderService;
 import org.example.entity.Cart;
+import org.example.entity.CartItem;
 import org.example.entity.Order;
+import org.example.entity.OrderItem;
 import org.example.entity.OrderStatus;
 import org.example.entity.Product;
+import org.example.money.Money;
 import org.example.repository.CartRepository;
 import org.example.repository.OrderRepository;
 import org.example.repository.ProductRepository;
@@ -50,21 +53,21 @@ class OrderServiceImplTest {
         // Create test products
         product1 = new Product();
         product1.setName("Laptop");
-        product1.setPrice(new BigDecimal("1200.00"));
+        product1.setPrice(Money.of("1200.00"));
         product1.setStock(5);
         product1 = productRepository.save(product1);
 
         product2 = new Product();
         product2.setName("Mouse");
-        product2.setPrice(new BigDecimal("25.50"));
+        product2.setPrice(Money.of("25.50"));
         product2.setStock(10);
         product2 = productRepository.save(product2);
 
         // Create cart with products
         cart = new Cart();
-        cart.setProducts(new HashSet<>());
-        cart.getProducts().add(product1);
-        cart.getProducts().add(product2);
+        cart.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
+        addCartItem(cart, product1, 1);
+        addCartItem(cart, product2, 1);
         cart = cartRepository.save(cart);
     }
 
@@ -83,19 +86,21 @@ class OrderServiceImplTest {
         Order order = ((Iterable<Order>) orderRepository.findAll()).iterator().next();
         assertThat(order).isNotNull();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.OPEN);
-        assertThat(order.getProducts()).hasSize(2);
+        assertThat(order.getTotal()).isEqualTo(Money.of("1225.50"));
+        assertThat(order.getItems())
+                .extracting(OrderItem::getUnitPrice)
+                .containsExactlyInAnyOrder(Money.of("1200.00"), Money.of("25.50"));
 
         // Verify cart was cleared
-        Cart updatedCart = cartRepository.findFirstByOrderByIdAsc().orElseThrow();
-        assertThat(updatedCart.getProducts()).isEmpty();
+        Cart updatedCart = cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow();
+        assertThat(updatedCart.getItems()).isEmpty();
     }
 
     @Test
     @DisplayName("Checkout Happy Path: Should handle single product")
     void checkout_shouldHandleSingleProduct() {
         // Given - cart with only one product
-        cart.getProducts().clear();
-        cart.getProducts().add(product1);
+        cart.getItems().removeIf(item -> item.getProduct().equals(product2));
         cartRepository.save(cart);
 
         // When
@@ -105,11 +110,52 @@ class OrderServiceImplTest {
         assertThat(total).isEqualByComparingTo(new BigDecimal("1200.00"));
     }
 
+    @Test
+    @DisplayName("Checkout Happy Path: Should multiply unit price by line quantity")
+    void checkout_shouldMultiplyUnitPriceByQuantity() {
+        // Given - three mice instead of one
+        cart.getItems().stream()
+                .filter(item -> item.getProduct().equals(product2))
+                .forEach(item -> item.setQuantity(3));
+        cartRepository.save(cart);
+
+        // When
+        BigDecimal total = orderService.checkout();
+
+        // Then
+        assertThat(total).isEqualByComparingTo(new BigDecimal("1276.50")); // 1200 + 3 * 25.50
+        Order order = ((Iterable<Order>) orderRepository.findAll()).iterator().next();
+        assertThat(order.getItems())
+                .extracting(OrderItem::getQuantity)
+                .containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    @DisplayName("Checkout Happy Path: Should only check out the given owner's cart")
+    void checkout_shouldOnlyCheckoutOwnersCart() {
+        // Given - a second shopper with their own cart
+        Cart otherCart = new Cart();
+        otherCart.setOwnerId("customer-2");
+        addCartItem(otherCart, product2, 1);
+        cartRepository.save(otherCart);
+
+        // When
+        BigDecimal total = orderService.checkout("customer-2");
+
+        // Then
+        assertThat(total).isEqualByComparingTo(new BigDecimal("25.50"));
+        Order order = ((Iterable<Order>) orderRepository.findAll()).iterator().next();
+        assertThat(order.getOwnerId()).isEqualTo("customer-2");
+        assertThat(cartRepository.findWithItemsByOwnerId("customer-2").orElseThrow().getItems()).isEmpty();
+        assertThat(cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow().getItems())
+                .hasSize(2);
+    }
+
     @Test
     @DisplayName("Checkout Sad Path: Should throw exception when cart is empty")
     void checkout_shouldThrowExceptionWhenCartEmpty() {
         // Given - empty cart
-        cart.getProducts().clear();
+        cart.getItems().clear();
         cartRepository.save(cart);
 
         // When & Then
@@ -143,10 +189,10 @@ class OrderServiceImplTest {
         int initialStock2 = product2.getStock();
 
         Order order = new Order();
+        order.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
         order.setStatus(OrderStatus.OPEN);
-        order.setProducts(new HashSet<>());
-        order.getProducts().add(product1);
-        order.getProducts().add(product2);
+        addOrderItem(order, product1, 1);
+        addOrderItem(order, product2, 1);
         orderRepository.save(order);
 
         // When
@@ -172,9 +218,9 @@ class OrderServiceImplTest {
         productRepository.save(product1);
 
         Order order = new Order();
+        order.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
         order.setStatus(OrderStatus.OPEN);
-        order.setProducts(new HashSet<>());
-        order.getProducts().add(product1);
+        addOrderItem(order, product1, 1);
         orderRepository.save(order);
 
         // When
@@ -185,6 +231,85 @@ class OrderServiceImplTest {
         assertThat(restoredProduct.getStock()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Cancel Happy Path: Should restore the full line quantity")
+    void cancel_shouldRestoreLineQuantity() {
+        // Given
+        int initialStock = product2.getStock();
+
+        Order order = new Order();
+        order.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
+        order.setStatus(OrderStatus.OPEN);
+        addOrderItem(order, product2, 4);
+        orderRepository.save(order);
+
+        // When
+        orderService.cancel();
+
+        // Then
+        Product restoredProduct = productRepository.findById(product2.getId()).orElseThrow();
+        assertThat(restoredProduct.getStock()).isEqualTo(initialStock + 4);
+    }
+
+    @Test
+    @DisplayName("Cancel Happy Path: Should cancel the owner's latest open order")
+    void cancel_shouldCancelLatestOpenOrder() throws InterruptedException {
+        // Given - an older and a newer open order
+        Order olderOrder = saveOrder(OrderStatus.OPEN, product1);
+        Thread.sleep(5);
+        Order newerOrder = saveOrder(OrderStatus.OPEN, product2);
+
+        // When
+        orderService.cancel();
+
+        // Then
+        assertThat(orderRepository.findById(newerOrder.getId()).orElseThrow().getStatus())
+                .isEqualTo(OrderStatus.CLOSED);
+        assertThat(orderRepository.findById(olderOrder.getId()).orElseThrow().getStatus())
+                .isEqualTo(OrderStatus.OPEN);
+    }
+
+    @Test
+    @DisplayName("Cancel Happy Path: Should cancel a specific order by id")
+    void cancel_shouldCancelOrderById() {
+        // Given
+        int initialStock = product1.getStock();
+        Order order = saveOrder(OrderStatus.OPEN, product1);
+
+        // When
+        orderService.cancel(order.getId());
+
+        // Then
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus())
+                .isEqualTo(OrderStatus.CLOSED);
+        assertThat(productRepository.findById(product1.getId()).orElseThrow().getStock())
+                .isEqualTo(initialStock + 1);
+    }
+
+    @Test
+    @DisplayName("Cancel Sad Path: Should ignore closed orders when looking up the latest open one")
+    void cancel_shouldThrowExceptionWhenOnlyClosedOrdersExist() {
+        // Given
+        saveOrder(OrderStatus.CLOSED, product1);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.cancel())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No order found to cancel");
+    }
+
+    @Test
+    @DisplayName("Cancel Sad Path: Should throw exception when order id is unknown")
+    void cancel_shouldThrowExceptionWhenOrderIdUnknown() {
+        // Given
+        UUID unknownId = UUID.randomUUID();
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.cancel(unknownId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Order not found with id: " + unknownId);
+    }
+
     @Test
     @DisplayName("Cancel Sad Path: Should throw exception when no order found")
     void cancel_shouldThrowExceptionWhenNoOrderFound() {
@@ -202,15 +327,15 @@ class OrderServiceImplTest {
     void cancel_shouldThrowExceptionWhenOrderAlreadyClosed() {
         // Given - closed order
         Order order = new Order();
+        order.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
         order.setStatus(OrderStatus.CLOSED);
-        order.setProducts(new HashSet<>());
-        order.getProducts().add(product1);
+        addOrderItem(order, product1, 1);
         orderRepository.save(order);
 
         int initialStock = product1.getStock();
 
         // When & Then
-        assertThatThrownBy(() -> orderService.cancel())
+        assertThatThrownBy(() -> orderService.cancel(order.getId()))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Cannot cancel order with status: CLOSED");
 
@@ -218,4 +343,30 @@ class OrderServiceImplTest {
         Product unchangedProduct = productRepository.findById(product1.getId()).orElseThrow();
         assertThat(unchangedProduct.getStock()).isEqualTo(initialStock);
     }
+
+    private static void addCartItem(Cart cart, Product product, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(product.getPrice());
+        cart.getItems().add(item);
+    }
+
+    private static void addOrderItem(Order order, Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(product.getPrice());
+        order.getItems().add(item);
+    }
+
+    private Order saveOrder(OrderStatus status, Product product) {
+        Order order = new Order();
+        order.setOwnerId(Cart.ANONYMOUS_OWNER_ID);
+        order.setStatus(status);
+        addOrderItem(order, product, 1);
+        return orderRepository.save(order);
+    }
 }
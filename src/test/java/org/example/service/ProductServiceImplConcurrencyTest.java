@@ -0,0 +1,175 @@
+package org.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.contract.ProductService;
+import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs without a test-managed transaction so that every {@code addToCart} call commits on its own
+ * and concurrent callers really compete for the same product row.
+ */
+@SpringBootTest
+class ProductServiceImplConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 50;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Product hotProduct;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+
+        hotProduct = new Product();
+        hotProduct.setName("Flash Sale Console");
+        hotProduct.setPrice(Money.of("499.00"));
+        hotProduct.setStock(INITIAL_STOCK);
+        hotProduct = productRepository.save(hotProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrency: Stock should never go negative when many threads hammer one product")
+    void addToCart_shouldNeverOversellUnderConcurrentLoad() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - more attempts than there are units in stock
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        productService.addToCart(hotProduct.getId());
+                        successes.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        int finalStock = productRepository.findById(hotProduct.getId()).orElseThrow().getStock();
+        assertThat(finalStock).isGreaterThanOrEqualTo(0);
+        assertThat(successes.get()).isLessThanOrEqualTo(INITIAL_STOCK);
+        assertThat(finalStock).isEqualTo(INITIAL_STOCK - successes.get());
+        assertThat(successes.get() + failures.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("Concurrency: Concurrent first adds for one owner should be retried, not fail")
+    void addToCart_shouldRetryConcurrentFirstAdds() throws Exception {
+        // Given - the owner has no cart yet
+        String ownerId = "first-time-buyer";
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Product>> futures = new ArrayList<>();
+
+        // When - every thread creates the cart and its line, unless another one did it first
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return productService.addToCart(ownerId, hotProduct.getId());
+            }));
+        }
+        start.countDown();
+        for (Future<Product> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then - the losers of both races were retried instead of failing
+        List<CartItem> lines =
+                cartRepository.findWithItemsByOwnerId(ownerId).orElseThrow().getItems();
+        assertThat(cartRepository.count()).isEqualTo(1);
+        assertThat(lines).singleElement().extracting(CartItem::getQuantity).isEqualTo(THREADS);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock())
+                .isEqualTo(INITIAL_STOCK - THREADS);
+    }
+
+    @Test
+    @DisplayName("Sad Path: Should not report a violation of another constraint as a conflict")
+    void saveItems_shouldRethrowOtherViolations() {
+        // Given - a cart line for a product row that does not exist
+        UUID missingProductId = UUID.randomUUID();
+
+        // When & Then - the foreign key fails, which no retry could fix
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = new Cart();
+            cart.setOwnerId("orphan-line-owner");
+            cartRepository.insert(cart);
+
+            CartItem line = new CartItem();
+            line.setCart(cart);
+            line.setProduct(entityManager.getReference(Product.class, missingProductId));
+            line.setQuantity(1);
+            line.setUnitPrice(Money.of("1.00"));
+            cart.getItems().add(line);
+            cartRepository.saveItems(cart);
+        }))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(ConcurrencyFailureException.class);
+        assertThat(cartRepository.findByOwnerId("orphan-line-owner")).isEmpty();
+    }
+}
@@ -2,12 +2,20 @@ package org.example.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.example.contract.AddToCartRequest;
+import org.example.contract.AddToCartResult;
 import org.example.contract.ProductService;
 import org.example.entity.Cart;
+import org.example.entity.CartItem;
 import org.example.entity.Product;
+import org.example.exception.InsufficientStockException;
+import org.example.money.Money;
 import org.example.repository.CartRepository;
 import org.example.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +23,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -41,7 +50,7 @@ class ProductServiceImplTest {
         // Create test product
         testProduct = new Product();
         testProduct.setName("Test Laptop");
-        testProduct.setPrice(new BigDecimal("1500.00"));
+        testProduct.setPrice(Money.of("1500.00"));
         testProduct.setStock(10);
         testProduct = productRepository.save(testProduct);
     }
@@ -64,9 +73,9 @@ class ProductServiceImplTest {
         assertThat(updatedProduct.getStock()).isEqualTo(initialStock - 1);
 
         // Verify product added to cart
-        Cart cart = cartRepository.findFirstByOrderByIdAsc().orElseThrow();
-        assertThat(cart.getProducts()).hasSize(1);
-        assertThat(cart.getProducts()).extracting(Product::getId).contains(testProduct.getId());
+        Cart cart = cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow();
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItems()).extracting(item -> item.getProduct().getId()).contains(testProduct.getId());
     }
 
     @Test
@@ -75,7 +84,7 @@ class ProductServiceImplTest {
         // Given
         Product product2 = new Product();
         product2.setName("Test Mouse");
-        product2.setPrice(new BigDecimal("50.00"));
+        product2.setPrice(Money.of("50.00"));
         product2.setStock(5);
         product2 = productRepository.save(product2);
 
@@ -84,8 +93,67 @@ class ProductServiceImplTest {
         productService.addToCart(product2.getId());
 
         // Then
-        Cart cart = cartRepository.findFirstByOrderByIdAsc().orElseThrow();
-        assertThat(cart.getProducts()).hasSize(2);
+        Cart cart = cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow();
+        assertThat(cart.getItems()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should increment the quantity of an existing cart line")
+    void addToCart_shouldIncrementExistingLine() {
+        // When
+        productService.addToCart(testProduct.getId());
+        productService.addToCart(testProduct.getId());
+        productService.addToCart(testProduct.getId());
+
+        // Then
+        Cart cart = cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow();
+        assertThat(cart.getItems()).hasSize(1);
+        CartItem line = cart.getItems().get(0);
+        assertThat(line.getQuantity()).isEqualTo(3);
+        assertThat(line.getUnitPrice()).isEqualTo(Money.of("1500.00"));
+
+        Product updatedProduct = productRepository.findById(testProduct.getId()).orElseThrow();
+        assertThat(updatedProduct.getStock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should apply independent requests in one transaction with a result each")
+    void addEachToCart_shouldReportOutcomePerRequest() {
+        // Given - one unit left, asked for by two owners, plus a product that does not exist
+        Product lastUnit = saveProduct("Last Unit", "20.00", 1);
+        UUID missingId = UUID.randomUUID();
+
+        // When
+        List<AddToCartResult> results = productService.addEachToCart(List.of(
+                new AddToCartRequest("owner-a", testProduct.getId()),
+                new AddToCartRequest("owner-a", lastUnit.getId()),
+                new AddToCartRequest("owner-b", lastUnit.getId()),
+                new AddToCartRequest("owner-b", missingId)));
+
+        // Then - results in request order, failures do not undo the other requests
+        assertThat(results).extracting(AddToCartResult::isAdded).containsExactly(true, true, false, false);
+        assertThat(results.get(2).failure()).isInstanceOf(IllegalStateException.class);
+        assertThat(results.get(3).failure()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(cartRepository.findWithItemsByOwnerId("owner-a").orElseThrow().getItems()).hasSize(2);
+        assertThat(cartRepository.findByOwnerId("owner-b")).isEmpty();
+        assertThat(productRepository.findById(lastUnit.getId()).orElseThrow().getStock()).isZero();
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should keep separate carts per owner")
+    void addToCart_shouldKeepSeparateCartsPerOwner() {
+        // When
+        productService.addToCart("customer-1", testProduct.getId());
+        productService.addToCart("customer-2", testProduct.getId());
+
+        // Then
+        Cart firstCart = cartRepository.findWithItemsByOwnerId("customer-1").orElseThrow();
+        Cart secondCart = cartRepository.findWithItemsByOwnerId("customer-2").orElseThrow();
+        assertThat(firstCart.getId()).isNotEqualTo(secondCart.getId());
+        assertThat(firstCart.getItems()).extracting(CartItem::getQuantity).containsExactly(1);
+        assertThat(secondCart.getItems()).extracting(CartItem::getQuantity).containsExactly(1);
+        assertThat(cartRepository.findByOwnerId(Cart.ANONYMOUS_OWNER_ID)).isEmpty();
     }
 
     @Test
@@ -100,7 +168,7 @@ class ProductServiceImplTest {
                 .hasMessageContaining("Product not found with id: " + nonExistentId);
 
         // Verify no cart was created
-        assertThat(cartRepository.findFirstByOrderByIdAsc()).isEmpty();
+        assertThat(cartRepository.findByOwnerId(Cart.ANONYMOUS_OWNER_ID)).isEmpty();
     }
 
     @Test
@@ -120,7 +188,7 @@ class ProductServiceImplTest {
         assertThat(unchangedProduct.getStock()).isEqualTo(0);
 
         // Verify no cart was created
-        assertThat(cartRepository.findFirstByOrderByIdAsc()).isEmpty();
+        assertThat(cartRepository.findByOwnerId(Cart.ANONYMOUS_OWNER_ID)).isEmpty();
     }
 
     @Test
@@ -145,4 +213,79 @@ class ProductServiceImplTest {
         Product finalProduct = productRepository.findById(testProduct.getId()).orElseThrow();
         assertThat(finalProduct.getStock()).isEqualTo(0);
     }
+
+    // ========== BULK ADD TESTS ==========
+
+    @Test
+    @DisplayName("Bulk Happy Path: Should reserve every SKU and update the cart once")
+    void addAllToCart_shouldReserveAllProducts() {
+        // Given
+        Product mouse = saveProduct("Test Mouse", "50.00", 5);
+
+        // When
+        List<Product> added = productService.addAllToCart(Map.of(testProduct.getId(), 3, mouse.getId(), 2));
+        productService.addAllToCart(Map.of(mouse.getId(), 1));
+
+        // Then
+        assertThat(added).extracting(Product::getId)
+                .containsExactlyInAnyOrder(testProduct.getId(), mouse.getId());
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(7);
+        assertThat(productRepository.findById(mouse.getId()).orElseThrow().getStock()).isEqualTo(2);
+
+        Cart cart = cartRepository.findWithItemsByOwnerId(Cart.ANONYMOUS_OWNER_ID).orElseThrow();
+        assertThat(cart.getItems())
+                .extracting(item -> item.getProduct().getId(), CartItem::getQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(testProduct.getId(), 3),
+                        tuple(mouse.getId(), 3));
+    }
+
+    @Test
+    @DisplayName("Bulk Sad Path: Should throw exception when any product is missing")
+    void addAllToCart_shouldThrowExceptionWhenProductMissing() {
+        // Given
+        UUID nonExistentId = UUID.randomUUID();
+
+        // When & Then
+        assertThatThrownBy(() -> productService.addAllToCart(Map.of(testProduct.getId(), 1, nonExistentId, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(nonExistentId.toString());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Bulk Sad Path: Should reserve nothing and report every SKU that lacks stock")
+    void addAllToCart_shouldFailAtomicallyAndReportOutOfStockProducts() {
+        // Given - committed data, so the rollback of the service transaction is observable
+        Product mouse = saveProduct("Test Mouse", "50.00", 1);
+        Product keyboard = saveProduct("Test Keyboard", "80.00", 0);
+
+        try {
+            // When
+            InsufficientStockException exception = catchThrowableOfType(
+                    () -> productService.addAllToCart(
+                            "bulk-shopper", Map.of(testProduct.getId(), 2, mouse.getId(), 5, keyboard.getId(), 1)),
+                    InsufficientStockException.class);
+
+            // Then
+            assertThat(exception).isNotNull();
+            assertThat(exception.getProductIds()).containsExactlyInAnyOrder(mouse.getId(), keyboard.getId());
+
+            // Then - the product that had enough stock was not decremented either
+            assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(10);
+            assertThat(productRepository.findById(mouse.getId()).orElseThrow().getStock()).isEqualTo(1);
+            assertThat(cartRepository.findByOwnerId("bulk-shopper")).isEmpty();
+        } finally {
+            cartRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    private Product saveProduct(String name, String price, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(Money.of(price));
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
 }
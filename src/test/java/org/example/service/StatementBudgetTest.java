@@ -0,0 +1,209 @@
+package org.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.contract.OrderService;
+import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.Product;
+import org.example.exception.StatementBudgetExceededException;
+import org.example.metrics.StatementBudget;
+import org.example.metrics.StatementBudgetProperties;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs without a test-managed transaction, so every service call owns its transaction and is held
+ * to its {@link StatementBudget}.
+ */
+@SpringBootTest(properties = {
+        "app.metrics.statement-budget.mode=fail",
+        "app.stock.rebalance.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+@Import(StatementBudgetTest.ProductImporter.class)
+class StatementBudgetTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductImporter productImporter;
+
+    @Autowired
+    private StatementBudgetProperties budgetProperties;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        budgetProperties.setMode(StatementBudgetProperties.Mode.FAIL);
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Checkout: Should stay within its budget with the same statement count for 10 and 100 lines")
+    void checkout_shouldUseConstantStatementsRegardlessOfCartSize() {
+        // Given
+        saveCart("budget-small-cart", saveProducts(10));
+        saveCart("budget-large-cart", saveProducts(100));
+
+        // When
+        long smallCartStatements = checkoutStatements("budget-small-cart");
+        long largeCartStatements = checkoutStatements("budget-large-cart");
+
+        // Then - one extra batch each of order line inserts and cart line deletes
+        assertThat(largeCartStatements).isLessThanOrEqualTo(OrderServiceImpl.CHECKOUT_STATEMENT_BUDGET);
+        assertThat(largeCartStatements - smallCartStatements).isLessThanOrEqualTo(2);
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Fail mode: Should refuse the statement over the budget and roll back")
+    void budget_shouldRollBackWhenExceededInFailMode() {
+        // Given
+        double exceeded = exceeded("importProducts");
+
+        // When
+        Throwable thrown = catchThrowable(() -> productImporter.importProducts(5));
+
+        // Then
+        assertThat(NestedExceptionUtils.getMostSpecificCause(thrown))
+                .isInstanceOf(StatementBudgetExceededException.class)
+                .hasMessageContaining("ProductImporter.importProducts");
+        assertThat(productRepository.count()).isZero();
+        assertThat(exceeded("importProducts")).isEqualTo(exceeded + 1);
+    }
+
+    @Test
+    @DisplayName("Log mode: Should let the transaction commit and count it as over budget")
+    void budget_shouldOnlyCountWhenExceededInLogMode() {
+        // Given
+        budgetProperties.setMode(StatementBudgetProperties.Mode.LOG);
+        double exceeded = exceeded("importProducts");
+
+        // When
+        productImporter.importProducts(5);
+
+        // Then
+        assertThat(productRepository.count()).isEqualTo(5);
+        assertThat(exceeded("importProducts")).isEqualTo(exceeded + 1);
+    }
+
+    @Test
+    @DisplayName("Should not check a call within its budget")
+    void budget_shouldAllowCallWithinBudget() {
+        // Given
+        double exceeded = exceeded("importProducts");
+
+        // When
+        productImporter.importProducts(2);
+
+        // Then
+        assertThat(productRepository.count()).isEqualTo(2);
+        assertThat(exceeded("importProducts")).isEqualTo(exceeded);
+    }
+
+    private long checkoutStatements(String ownerId) {
+        double before = checkoutStatementTotal();
+        orderService.checkout(ownerId);
+        return (long) (checkoutStatementTotal() - before);
+    }
+
+    /** The summary is registered by the first checkout, so it may not exist yet. */
+    private double checkoutStatementTotal() {
+        DistributionSummary statements = registry.find("shop.service.transactions.statements")
+                .tags("class", "OrderServiceImpl", "method", "checkout")
+                .summary();
+        return statements == null ? 0 : statements.totalAmount();
+    }
+
+    private double exceeded(String method) {
+        Counter counter = registry.find("shop.service.statement-budget.exceeded")
+                .tags("class", "ProductImporter", "method", method)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private List<Product> saveProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(Money.of("10.00"));
+            product.setStock(10);
+            products.add(productRepository.save(product));
+        }
+        return products;
+    }
+
+    private void saveCart(String ownerId, List<Product> products) {
+        Cart cart = new Cart();
+        cart.setOwnerId(ownerId);
+        for (Product product : products) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(product.getPrice());
+            cart.getItems().add(item);
+        }
+        cartRepository.save(cart);
+    }
+
+    /** Flushes after every product, so each one costs a statement of its own. */
+    @RequiredArgsConstructor
+    static class ProductImporter {
+
+        private final EntityManager entityManager;
+
+        @StatementBudget(3)
+        @Transactional
+        public void importProducts(int count) {
+            for (int i = 0; i < count; i++) {
+                Product product = new Product();
+                product.setName("Imported " + i);
+                product.setPrice(Money.of("1.00"));
+                product.setStock(1);
+                entityManager.persist(product);
+                entityManager.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs without a test-managed transaction: a second transaction holds the product row lock while
+ * the service waits for it. H2 gives up on a row lock after 500 ms here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:contention_db;LOCK_TIMEOUT=500",
+        "app.stock.rebalance.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class StockContentionTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockContentionEndpoint endpoint;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product hotProduct;
+
+    @BeforeEach
+    void setUp() {
+        hotProduct = new Product();
+        hotProduct.setName("Limited Edition Kettle");
+        hotProduct.setPrice(Money.of("59.00"));
+        hotProduct.setStock(10);
+        hotProduct = productRepository.save(hotProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should attribute the time spent waiting for a row lock to the product and the transaction")
+    void addToCart_shouldRecordLockWait() throws Exception {
+        // Given
+        CompletableFuture<Void> holder = holdRowLock(Duration.ofMillis(300));
+
+        // When
+        productService.addToCart("contention-shopper", hotProduct.getId());
+        holder.get();
+
+        // Then
+        StockContentionReport.HotProduct hot = reportFor(hotProduct);
+        assertThat(hot.lockWait()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(hot.locks()).isEqualTo(1);
+        assertThat(hot.lockTimeouts()).isZero();
+        assertThat(registry.get("shop.service.transactions.lock-wait")
+                .tags("class", "ProductServiceImpl", "method", "addToCart")
+                .timer()
+                .max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should count a lock timeout against the product and the service method, then retry")
+    void addToCart_shouldRecordLockTimeoutAndRetry() throws Exception {
+        // Given
+        CompletableFuture<Void> holder = holdRowLock(Duration.ofMillis(800));
+
+        // When
+        productService.addToCart("contention-shopper", hotProduct.getId());
+        holder.get();
+
+        // Then
+        StockContentionReport.HotProduct hot = reportFor(hotProduct);
+        assertThat(hot.lockTimeouts()).isPositive();
+        assertThat(hot.locks()).isEqualTo(hot.lockTimeouts() + 1);
+        assertThat(hot.failuresByOperation())
+                .containsEntry("ProductServiceImpl.addToCart", hot.lockTimeouts());
+        assertThat(registry.get("shop.stock.lock.failures")
+                .tags("failure", "lock_timeout", "operation", "ProductServiceImpl.addToCart")
+                .counter()
+                .count()).isPositive();
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock())
+                .isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should tell lock failures apart by exception type, SQL state and vendor code")
+    void lockFailure_shouldClassifyExceptions() {
+        assertThat(LockFailure.of(new CannotAcquireLockException("busy",
+                new SQLException("Timeout trying to lock table", "HYT00", 50200))))
+                .isEqualTo(LockFailure.LOCK_TIMEOUT);
+        assertThat(LockFailure.of(new CannotAcquireLockException("deadlock",
+                new SQLException("Deadlock detected", "40001", 40001))))
+                .isEqualTo(LockFailure.DEADLOCK);
+        assertThat(LockFailure.of(new SQLException("deadlock detected", "40P01")))
+                .isEqualTo(LockFailure.DEADLOCK);
+        assertThat(LockFailure.of(new SQLException("Deadlock found", "40001", 1213)))
+                .isEqualTo(LockFailure.DEADLOCK);
+        assertThat(LockFailure.of(new SQLException("could not serialize access", "40001")))
+                .isEqualTo(LockFailure.SERIALIZATION);
+        assertThat(LockFailure.of(new SQLTimeoutException("lock wait")))
+                .isEqualTo(LockFailure.LOCK_TIMEOUT);
+        assertThat(LockFailure.of(new DataIntegrityViolationException("duplicate key")))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the connection of a lock failure in the pool")
+    void exceptionOverride_shouldNotEvictOnLockFailure() {
+        LockFailureExceptionOverride override = new LockFailureExceptionOverride();
+        assertThat(override.adjudicate(new SQLTimeoutException("Timeout trying to lock", "HYT00", 50200)))
+                .isEqualTo(SQLExceptionOverride.Override.DO_NOT_EVICT);
+        assertThat(override.adjudicate(new SQLException("Connection lost", "08006")))
+                .isEqualTo(SQLExceptionOverride.Override.CONTINUE_EVICT);
+    }
+
+    /** Reserves a unit in another transaction and keeps the row locked for {@code duration}. */
+    private CompletableFuture<Void> holdRowLock(Duration duration) throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    productRepository.reserveStock(hotProduct.getId(), 1);
+                    locked.countDown();
+                    try {
+                        Thread.sleep(duration.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        locked.await();
+        return holder;
+    }
+
+    private StockContentionReport.HotProduct reportFor(Product product) {
+        return endpoint.hottest().hottest().stream()
+                .filter(hot -> hot.productId().equals(product.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.exception.InsufficientStockException;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockUnitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs without a test-managed transaction, so concurrent buyers really hold their locks until
+ * their own commit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:locking_modes_db",
+        "app.stock.rebalance.enabled=false",
+        "app.cart.sweep.enabled=false",
+        "app.outbox.relay.enabled=false"
+})
+class StockLockingModesTest {
+
+    private static final int BUYERS = 8;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockUnitPoolService stockUnitPoolService;
+
+    @Autowired
+    private StripedStockService stripedStockService;
+
+    @Autowired
+    private StockReservationProperties reservationProperties;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockUnitRepository stockUnitRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Product hotProduct;
+
+    @BeforeEach
+    void setUp() {
+        hotProduct = new Product();
+        hotProduct.setName("Concert Ticket");
+        hotProduct.setPrice(Money.of("80.00"));
+        hotProduct.setStock(BUYERS / 2);
+        hotProduct = productRepository.save(hotProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationProperties.setLocking(StockReservationProperties.Locking.GUARDED_UPDATE);
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        stockUnitRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should move the product stock into one unit row per piece")
+    void enablePooling_shouldTurnStockIntoUnits() {
+        // When
+        stockUnitPoolService.enablePooling(hotProduct.getId());
+
+        // Then
+        Product product = productRepository.findById(hotProduct.getId()).orElseThrow();
+        assertThat(product.isStockPooled()).isTrue();
+        assertThat(product.getStock()).isZero();
+        assertThat(stockUnitPoolService.available(hotProduct.getId())).isEqualTo(BUYERS / 2);
+    }
+
+    @Test
+    @DisplayName("Concurrency: Concurrent buyers of a pooled product should claim distinct units")
+    void addToCart_shouldClaimDistinctUnits() throws Exception {
+        // Given - as many buyers as units
+        stockUnitPoolService.enablePooling(hotProduct.getId());
+
+        // When
+        List<Throwable> failures = buyConcurrently(BUYERS / 2);
+
+        // Then - every buyer got a unit and the pool is empty
+        assertThat(failures).isEmpty();
+        assertThat(stockUnitPoolService.available(hotProduct.getId())).isZero();
+        assertThatThrownBy(() -> productService.addToCart("late-buyer", hotProduct.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("out of stock");
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should put the units of a cancelled order back into the pool")
+    void cancel_shouldReturnUnitsToPool() {
+        // Given
+        stockUnitPoolService.enablePooling(hotProduct.getId());
+        productService.addAllToCart("pool-owner", Map.of(hotProduct.getId(), 3));
+        orderService.checkout("pool-owner");
+        assertThat(stockUnitPoolService.available(hotProduct.getId())).isEqualTo(1);
+
+        // When
+        orderService.cancel("pool-owner");
+
+        // Then
+        assertThat(stockUnitPoolService.available(hotProduct.getId())).isEqualTo(BUYERS / 2);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should refuse to stripe a pooled product")
+    void enableStriping_shouldRejectPooledProduct() {
+        // Given
+        stockUnitPoolService.enablePooling(hotProduct.getId());
+
+        // When & Then
+        assertThatThrownBy(() -> stripedStockService.enableStriping(hotProduct.getId(), 4))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Concurrency: Pessimistic locking should never oversell the product row")
+    void addToCart_shouldNotOversellWithPessimisticLocking() throws Exception {
+        // Given - twice as many buyers as units
+        reservationProperties.setLocking(StockReservationProperties.Locking.PESSIMISTIC);
+
+        // When
+        List<Throwable> failures = buyConcurrently(BUYERS);
+
+        // Then - half of the buyers were turned away, the other half emptied the row
+        assertThat(failures).hasSize(BUYERS / 2)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(IllegalStateException.class));
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("Edge Case: Pessimistic locking should reject the whole basket when one product runs out")
+    void addAllToCart_shouldRollBackWithPessimisticLocking() {
+        // Given
+        reservationProperties.setLocking(StockReservationProperties.Locking.PESSIMISTIC);
+
+        // When & Then
+        assertThatThrownBy(
+                () -> productService.addAllToCart("locked-owner", Map.of(hotProduct.getId(), BUYERS)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock())
+                .isEqualTo(BUYERS / 2);
+    }
+
+    private List<Throwable> buyConcurrently(int buyers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(buyers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Product>> purchases = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                String ownerId = "buyer-" + i;
+                Callable<Product> purchase = () -> {
+                    start.await();
+                    return productService.addToCart(ownerId, hotProduct.getId());
+                };
+                purchases.add(executor.submit(purchase));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Product> purchase : purchases) {
+                try {
+                    purchase.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.entity.StockLedgerEntry;
+import org.example.exception.InsufficientStockException;
+import org.example.metrics.StatementBudgetProperties;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockLedgerRepository;
+import org.example.repository.StockStripeRepository;
+import org.example.repository.StockUnitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+        "app.stock.engine.enabled=true",
+        "app.stock.engine.flush-interval=PT1H"
+})
+@Transactional
+class StockReservationEngineTest {
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Autowired
+    private StripedStockService stripedStockService;
+
+    @Autowired
+    private StockUnitPoolService stockUnitPoolService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StatementBudgetProperties budgetProperties;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private StockStripeRepository stockStripeRepository;
+
+    @Autowired
+    private StockUnitRepository stockUnitRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository.deleteAll();
+        stockLedgerRepository.deleteAll();
+        productRepository.deleteAll();
+
+        testProduct = saveProduct("Flash Sale Console", 10);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should reserve in memory and leave the product row to the write-behind flush")
+    void addToCart_shouldReserveInMemoryAndRecordLedgerEntry() {
+        // When
+        productService.addToCart("engine-shopper", testProduct.getId());
+
+        // Then
+        assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(9);
+        assertThat(stockLedgerRepository.count()).isEqualTo(1);
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(10);
+        assertThat(stripedStockService.available(testProduct.getId())).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should net pending ledger entries into the product row on flush")
+    void flush_shouldApplyPendingEntriesToProductRow() {
+        // Given
+        productService.addToCart("engine-shopper", testProduct.getId());
+        productService.addAllToCart("engine-shopper", Map.of(testProduct.getId(), 3));
+
+        // When
+        int applied = stockReservationEngine.flush();
+
+        // Then
+        assertThat(applied).isEqualTo(2);
+        assertThat(stockLedgerRepository.count()).isZero();
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(6);
+        assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should apply entries left by a previous run before loading a counter")
+    void available_shouldIncludeEntriesLeftByPreviousRun() {
+        // Given - an entry committed before a crash, never flushed
+        StockLedgerEntry entry = new StockLedgerEntry();
+        entry.setProductId(testProduct.getId());
+        entry.setQuantity(-4);
+        stockLedgerRepository.save(entry);
+
+        // When
+        long available = stockReservationEngine.available(testProduct.getId());
+        stockReservationEngine.flush();
+
+        // Then
+        assertThat(available).isEqualTo(6);
+        assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Sad Path: Should reject a reservation the counter cannot cover")
+    void addToCart_shouldFailWhenCounterIsEmpty() {
+        // Given
+        Product lastUnit = saveProduct("Last Unit", 1);
+        productService.addToCart("engine-shopper", lastUnit.getId());
+
+        // When & Then
+        assertThatThrownBy(() -> productService.addToCart("engine-shopper", lastUnit.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("out of stock");
+        assertThat(stockReservationEngine.available(lastUnit.getId())).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Sad Path: Should give reserved units back when the transaction rolls back")
+    void addAllToCart_shouldReleaseCounterOnRollback() {
+        // Given - committed data, so the rollback of the service transaction is observable
+        Product soldOut = saveProduct("Sold Out Controller", 0);
+
+        try {
+            // When
+            assertThatThrownBy(() -> productService.addAllToCart(
+                    "engine-shopper", Map.of(testProduct.getId(), 2, soldOut.getId(), 1)))
+                    .isInstanceOf(InsufficientStockException.class);
+
+            // Then
+            assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(10);
+            assertThat(stockLedgerRepository.count()).isZero();
+        } finally {
+            cartRepository.deleteAll();
+            stockLedgerRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Edge Case: Should count a restock committed while the counter was first used")
+    void releaseOnCommit_shouldReachCounterFirstUsedDuringRestock() {
+        try {
+            // When - another thread asks for the stock between the restock UPDATE and its commit
+            long duringRestock = transactionTemplate.execute(status -> {
+                stockReservationEngine.releaseOnCommit(Map.of(testProduct.getId(), 2));
+                productRepository.applyStockDeltas(new TreeMap<>(Map.of(testProduct.getId(), 2)));
+                return CompletableFuture.supplyAsync(
+                        () -> stockReservationEngine.available(testProduct.getId())).join();
+            });
+
+            // Then - that read did not leave a counter behind that misses the units
+            assertThat(duringRestock).isEqualTo(10);
+            assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(12);
+        } finally {
+            stockLedgerRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Edge Case: Should split the stock net of pending ledger entries when striping")
+    void enableStriping_shouldApplyPendingEntriesFirst() {
+        try {
+            // Given - two committed reservations not written behind yet
+            productService.addToCart("engine-shopper", testProduct.getId());
+            productService.addToCart("engine-shopper", testProduct.getId());
+
+            // When
+            stripedStockService.enableStriping(testProduct.getId(), 2);
+
+            // Then - the stripes hold what is left and a later flush has nothing to subtract again
+            assertThat(stripedStockService.available(testProduct.getId())).isEqualTo(8);
+            assertThat(stockLedgerRepository.count()).isZero();
+            assertThat(stockReservationEngine.flush()).isZero();
+            assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isZero();
+        } finally {
+            cartRepository.deleteAll();
+            stockStripeRepository.deleteAll();
+            stockLedgerRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Edge Case: Should reload the counter after the product was striped and unstriped")
+    void disableStriping_shouldDropStaleCounter() {
+        try {
+            // Given - a loaded counter, then a sale from the stripes the engine never sees
+            productService.addToCart("engine-shopper", testProduct.getId());
+            stripedStockService.enableStriping(testProduct.getId(), 2);
+            productService.addToCart("striped-shopper", testProduct.getId());
+
+            // When
+            stripedStockService.disableStriping(testProduct.getId());
+
+            // Then
+            assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(8);
+            assertThat(productRepository.findById(testProduct.getId()).orElseThrow().getStock()).isEqualTo(8);
+        } finally {
+            cartRepository.deleteAll();
+            stockLedgerRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Edge Case: Should cancel an order with pooled and engine lines within the budget")
+    void cancel_shouldStayWithinStatementBudget() {
+        // Given - the engine releases the order lines, which it has to load first
+        Product pooled = saveProduct("Concert Ticket", 4);
+        stockUnitPoolService.enablePooling(pooled.getId());
+        productService.addAllToCart(
+                "engine-shopper", Map.of(testProduct.getId(), 2, pooled.getId(), 1));
+        orderService.checkout("engine-shopper");
+        budgetProperties.setMode(StatementBudgetProperties.Mode.FAIL);
+
+        try {
+            // When
+            orderService.cancel("engine-shopper");
+
+            // Then
+            assertThat(stockReservationEngine.available(testProduct.getId())).isEqualTo(10);
+            assertThat(stockUnitPoolService.available(pooled.getId())).isEqualTo(4);
+        } finally {
+            budgetProperties.setMode(StatementBudgetProperties.Mode.LOG);
+            outboxEventRepository.deleteAll();
+            orderRepository.deleteAll();
+            cartRepository.deleteAll();
+            stockUnitRepository.deleteAll();
+            stockLedgerRepository.deleteAll();
+            productRepository.deleteAll();
+        }
+    }
+
+    private Product saveProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(Money.of("299.00"));
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import org.example.contract.OrderService;
+import org.example.contract.ProductService;
+import org.example.entity.Product;
+import org.example.entity.StockStripe;
+import org.example.exception.InsufficientStockException;
+import org.example.money.Money;
+import org.example.repository.CartRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockStripeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class StripedStockServiceTest {
+
+    @Autowired
+    private StripedStockService stripedStockService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockStripeRepository stockStripeRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Product hotProduct;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        stockStripeRepository.deleteAll();
+        productRepository.deleteAll();
+
+        hotProduct = new Product();
+        hotProduct.setName("Flash Sale Phone");
+        hotProduct.setPrice(Money.of("499.00"));
+        hotProduct.setStock(10);
+        hotProduct = productRepository.save(hotProduct);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should spread the product stock evenly over the stripes")
+    void enableStriping_shouldMoveStockIntoStripes() {
+        // When
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+
+        // Then
+        assertThat(stripes()).containsExactly(3, 3, 2, 2);
+        Product product = productRepository.findById(hotProduct.getId()).orElseThrow();
+        assertThat(product.getStock()).isZero();
+        assertThat(product.getStockStripes()).isEqualTo(4);
+        assertThat(stripedStockService.available(hotProduct.getId())).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should reserve a striped product from one stripe")
+    void addToCart_shouldReserveFromOneStripe() {
+        // Given
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+        List<Integer> before = stripes();
+
+        // When
+        productService.addToCart("striped-owner", hotProduct.getId());
+
+        // Then - exactly one stripe gave up one unit
+        List<Integer> after = stripes();
+        int changedStripes = 0;
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                assertThat(after.get(i)).isEqualTo(before.get(i) - 1);
+                changedStripes++;
+            }
+        }
+        assertThat(changedStripes).isEqualTo(1);
+        assertThat(stripedStockService.available(hotProduct.getId())).isEqualTo(9);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should drain several stripes when no single stripe holds enough")
+    void addAllToCart_shouldDrainSeveralStripes() {
+        // Given - 10 units over 4 stripes, none holding more than 3
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+
+        // When
+        productService.addAllToCart("striped-owner", Map.of(hotProduct.getId(), 7));
+
+        // Then
+        assertThat(stripedStockService.available(hotProduct.getId())).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Edge Case: Should reject a striped reservation larger than the sum of the stripes")
+    void addAllToCart_shouldFailWhenStripesRunOut() {
+        // Given
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+
+        // When & Then
+        assertThatThrownBy(
+                () -> productService.addAllToCart("striped-owner", Map.of(hotProduct.getId(), 11)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(stripedStockService.available(hotProduct.getId())).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should even out skewed stripes")
+    void rebalance_shouldEvenOutStripes() {
+        // Given - all stock sits in the first stripe
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+        List<StockStripe> stripes = stockStripeRepository.findAllByProductIdOrderByStripe(hotProduct.getId());
+        stripes.forEach(stripe -> stripe.setStock(stripe.getStripe() == 0 ? 10 : 0));
+        stockStripeRepository.saveAll(stripes);
+
+        // When
+        stripedStockService.rebalance(hotProduct.getId());
+
+        // Then
+        assertThat(stripes()).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should return the stripes' stock to the product row")
+    void disableStriping_shouldFoldStripesBack() {
+        // Given
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+        productService.addToCart("striped-owner", hotProduct.getId());
+
+        // When
+        stripedStockService.disableStriping(hotProduct.getId());
+
+        // Then
+        Product product = productRepository.findById(hotProduct.getId()).orElseThrow();
+        assertThat(product.getStock()).isEqualTo(9);
+        assertThat(product.isStriped()).isFalse();
+        assertThat(stripes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Should restock the stripes when an order is cancelled")
+    void cancel_shouldRestockStripes() {
+        // Given
+        stripedStockService.enableStriping(hotProduct.getId(), 4);
+        productService.addAllToCart("striped-owner", Map.of(hotProduct.getId(), 2));
+        orderService.checkout("striped-owner");
+
+        // When
+        orderService.cancel("striped-owner");
+
+        // Then
+        assertThat(stripedStockService.available(hotProduct.getId())).isEqualTo(10);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    private List<Integer> stripes() {
+        return stockStripeRepository.findAllByProductIdOrderByStripe(hotProduct.getId()).stream()
+                .map(StockStripe::getStock)
+                .toList();
+    }
+}